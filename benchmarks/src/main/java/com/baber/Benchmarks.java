@@ -0,0 +1,38 @@
+package com.baber;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+
+/**
+ * runs the benchmarks reporting ops/sec, average time and the gc profiler allocation rate,
+ * the usual jmh command line options are passed through so a run can be narrowed with a regex or -p
+ */
+public final class Benchmarks {
+    private Benchmarks() {
+        // nothing to see here
+    }
+
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class);
+        if (commandLine.getBenchModes().isEmpty()) {
+            builder.mode(Throughput).mode(AverageTime);
+        }
+        if (!commandLine.getTimeUnit().hasValue()) {
+            builder.timeUnit(TimeUnit.MICROSECONDS);
+        }
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,53 @@
+package com.baber;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+/**
+ * the branching strategies on the engines that split by them, dancing links and SAT pick their own branches and the
+ * portfolio fixes its configurations, so they stay in SolveBenchmark; the easy corpus is left out since propagation
+ * settles most of it without a split
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.log.com.baber=warn")
+public class BranchingBenchmark {
+    @Param({"HARD", "MINIMAL17", "PATHOLOGICAL"})
+    public Corpus corpus;
+
+    @Param({"BREADTH_FIRST", "DEPTH_FIRST", "PARALLEL", "BACKJUMPING"})
+    public Engine engine;
+
+    @Param({"MRV", "MRV_DEGREE", "LEAST_CONSTRAINING", "RANDOM_RESTARTS"})
+    public Branching branching;
+
+    private Solver solver;
+
+    private List<Puzzle> puzzles;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        puzzles = corpus.puzzles();
+        solver = engine.withBranching(branching);
+        next = 0;
+    }
+
+    @Benchmark
+    public Puzzle solve() {
+        Puzzle puzzle = puzzles.get(next);
+        next = (next + 1) % puzzles.size();
+        // breadth first solves in place, so every engine gets a fresh copy
+        return solver.solve(new Puzzle(puzzle));
+    }
+}
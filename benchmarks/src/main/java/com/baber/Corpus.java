@@ -0,0 +1,60 @@
+package com.baber;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * the bundled benchmark puzzles, one 81 character puzzle per line with 0 or . for blanks and # for comments
+ */
+public enum Corpus {
+    EASY("easy.txt"),
+    HARD("hard.txt"),
+    MINIMAL17("minimal17.txt"),
+    PATHOLOGICAL("pathological.txt");
+
+    private final String resource;
+
+    Corpus(String resource) {
+        this.resource = resource;
+    }
+
+    public List<int[]> load() {
+        List<int[]> puzzles = new ArrayList<>();
+        InputStream stream = Corpus.class.getResourceAsStream("/corpus/" + resource);
+        if (stream == null) {
+            throw new IllegalStateException("Missing corpus " + resource);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int[] values = new int[line.length()];
+                for (int i = 0; i < values.length; i++) {
+                    char ch = line.charAt(i);
+                    values[i] = ch == '.' ? 0 : ch - '0';
+                }
+                puzzles.add(values);
+            }
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+        return puzzles;
+    }
+
+    public List<Puzzle> puzzles() {
+        List<Puzzle> puzzles = new ArrayList<>();
+        for (int[] values : load()) {
+            puzzles.add(new Puzzle(values));
+        }
+        return puzzles;
+    }
+}
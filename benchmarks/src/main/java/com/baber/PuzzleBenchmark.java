@@ -0,0 +1,68 @@
+package com.baber;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * the Puzzle operations on the hot path of every engine, each operation covers the whole corpus
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.log.com.baber=warn")
+public class PuzzleBenchmark {
+    @Param({"EASY", "HARD", "MINIMAL17", "PATHOLOGICAL"})
+    public Corpus corpus;
+
+    private List<Puzzle> puzzles;
+
+    @Setup
+    public void setup() {
+        puzzles = corpus.puzzles();
+    }
+
+    @Benchmark
+    public void candidates(Blackhole blackhole) {
+        for (Puzzle puzzle : puzzles) {
+            for (int row = 0; row < puzzle.getSize(); row++) {
+                for (int col = 0; col < puzzle.getSize(); col++) {
+                    blackhole.consume(puzzle.candidates(row, col));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void candidateMask(Blackhole blackhole) {
+        for (Puzzle puzzle : puzzles) {
+            for (int row = 0; row < puzzle.getSize(); row++) {
+                for (int col = 0; col < puzzle.getSize(); col++) {
+                    blackhole.consume(puzzle.candidateMask(row, col));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void isValid(Blackhole blackhole) {
+        for (Puzzle puzzle : puzzles) {
+            blackhole.consume(puzzle.isValid());
+        }
+    }
+
+    @Benchmark
+    public void fork(Blackhole blackhole) {
+        for (Puzzle puzzle : puzzles) {
+            blackhole.consume(puzzle.fork());
+        }
+    }
+}
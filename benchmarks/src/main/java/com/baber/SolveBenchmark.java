@@ -0,0 +1,46 @@
+package com.baber;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+/**
+ * one operation solves the next puzzle of the corpus, so ops/sec is puzzles solved per second, every engine with
+ * its default branching and no elimination techniques, BranchingBenchmark sweeps those
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.log.com.baber=warn")
+public class SolveBenchmark {
+    @Param({"EASY", "HARD", "MINIMAL17", "PATHOLOGICAL"})
+    public Corpus corpus;
+
+    @Param({"BREADTH_FIRST", "DEPTH_FIRST", "PARALLEL", "DANCING_LINKS", "BACKJUMPING", "SAT", "PORTFOLIO"})
+    public Engine engine;
+
+    private List<Puzzle> puzzles;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        puzzles = corpus.puzzles();
+        next = 0;
+    }
+
+    @Benchmark
+    public Puzzle solve() {
+        Puzzle puzzle = puzzles.get(next);
+        next = (next + 1) % puzzles.size();
+        // breadth first solves in place, so every engine gets a fresh copy
+        return engine.solve(new Puzzle(puzzle));
+    }
+}
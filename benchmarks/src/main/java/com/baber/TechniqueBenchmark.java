@@ -0,0 +1,56 @@
+package com.baber;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+/**
+ * the elimination techniques on the engines that run them where the singles stall, with the default branching;
+ * backjumping, dancing links, SAT and the portfolio do not run them, and the easy corpus is left out since the
+ * singles settle most of it on their own
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.log.com.baber=warn")
+public class TechniqueBenchmark {
+    @Param({"HARD", "MINIMAL17", "PATHOLOGICAL"})
+    public Corpus corpus;
+
+    @Param({"BREADTH_FIRST", "DEPTH_FIRST", "PARALLEL"})
+    public Engine engine;
+
+    /**
+     * the elimination techniques to run where the singles stall, as batch --techniques takes them
+     */
+    @Param({"none", "LOCKED_CANDIDATES,NAKED_PAIRS,HIDDEN_PAIRS", "all"})
+    public String techniques;
+
+    private Solver solver;
+
+    private List<Puzzle> puzzles;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        puzzles = corpus.puzzles();
+        solver = "none".equals(techniques) ? engine : engine.withTechniques(BatchSolve.parseTechniques(techniques));
+        next = 0;
+    }
+
+    @Benchmark
+    public Puzzle solve() {
+        Puzzle puzzle = puzzles.get(next);
+        next = (next + 1) % puzzles.size();
+        // breadth first solves in place, so every engine gets a fresh copy
+        return solver.solve(new Puzzle(puzzle));
+    }
+}
@@ -1,3 +1,3 @@
-cd target/classes
-/Users/stevebaber/Library/Java/JavaVirtualMachines/azul-11.0.20.1/Contents/Home/bin/java  -classpath /Users/stevebaber/git/sudoko/target/classes:/Users/stevebaber/.m2/repository/com/google/guava/guava/33.2.1-jre/guava-33.2.1-jre.jar:/Users/stevebaber/.m2/repository/com/google/guava/failureaccess/1.0.2/failureaccess-1.0.2.jar:/Users/stevebaber/.m2/repository/com/google/guava/listenablefuture/9999.0-empty-to-avoid-conflict-with-guava/listenablefuture-9999.0-empty-to-avoid-conflict-with-guava.jar:/Users/stevebaber/.m2/repository/com/google/code/findbugs/jsr305/3.0.2/jsr305-3.0.2.jar:/Users/stevebaber/.m2/repository/org/checkerframework/checker-qual/3.42.0/checker-qual-3.42.0.jar:/Users/stevebaber/.m2/repository/com/google/errorprone/error_prone_annotations/2.26.1/error_prone_annotations-2.26.1.jar:/Users/stevebaber/.m2/repository/com/google/j2objc/j2objc-annotations/3.0.0/j2objc-annotations-3.0.0.jar:/Users/stevebaber/.m2/repository/org/projectlombok/lombok/1.18.34/lombok-1.18.34.jar:/Users/stevebaber/.m2/repository/org/slf4j/slf4j-api/2.0.13/slf4j-api-2.0.13.jar:/Users/stevebaber/.m2/repository/org/slf4j/slf4j-simple/2.0.13/slf4j-simple-2.0.13.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-fxml/15/javafx-fxml-15.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-fxml/15/javafx-fxml-15-mac.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-controls/15/javafx-controls-15.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-controls/15/javafx-controls-15-mac.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-graphics/15/javafx-graphics-15.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-graphics/15/javafx-graphics-15-mac.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-base/15/javafx-base-15.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-base/15/javafx-base-15-mac.jar:/Users/stevebaber/.m2/repository/org/controlsfx/controlsfx/11.1.2/controlsfx-11.1.2.jar --module-path ../../native/javafx-sdk-17.0.12/lib --add-modules javafx.controls,javafx.fxml,javafx.graphics -Xmx1g com.baber.SudokuUI
+cd sudoku-ui/target/classes
+/Users/stevebaber/Library/Java/JavaVirtualMachines/azul-11.0.20.1/Contents/Home/bin/java  -classpath /Users/stevebaber/git/sudoko/sudoku-ui/target/classes:/Users/stevebaber/git/sudoko/sudoku-core/target/classes:/Users/stevebaber/.m2/repository/com/google/guava/guava/33.2.1-jre/guava-33.2.1-jre.jar:/Users/stevebaber/.m2/repository/com/google/guava/failureaccess/1.0.2/failureaccess-1.0.2.jar:/Users/stevebaber/.m2/repository/com/google/guava/listenablefuture/9999.0-empty-to-avoid-conflict-with-guava/listenablefuture-9999.0-empty-to-avoid-conflict-with-guava.jar:/Users/stevebaber/.m2/repository/com/google/code/findbugs/jsr305/3.0.2/jsr305-3.0.2.jar:/Users/stevebaber/.m2/repository/org/checkerframework/checker-qual/3.42.0/checker-qual-3.42.0.jar:/Users/stevebaber/.m2/repository/com/google/errorprone/error_prone_annotations/2.26.1/error_prone_annotations-2.26.1.jar:/Users/stevebaber/.m2/repository/com/google/j2objc/j2objc-annotations/3.0.0/j2objc-annotations-3.0.0.jar:/Users/stevebaber/.m2/repository/org/projectlombok/lombok/1.18.34/lombok-1.18.34.jar:/Users/stevebaber/.m2/repository/org/slf4j/slf4j-api/2.0.13/slf4j-api-2.0.13.jar:/Users/stevebaber/.m2/repository/org/slf4j/slf4j-simple/2.0.13/slf4j-simple-2.0.13.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-fxml/15/javafx-fxml-15.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-fxml/15/javafx-fxml-15-mac.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-controls/15/javafx-controls-15.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-controls/15/javafx-controls-15-mac.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-graphics/15/javafx-graphics-15.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-graphics/15/javafx-graphics-15-mac.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-base/15/javafx-base-15.jar:/Users/stevebaber/.m2/repository/org/openjfx/javafx-base/15/javafx-base-15-mac.jar:/Users/stevebaber/.m2/repository/org/controlsfx/controlsfx/11.1.2/controlsfx-11.1.2.jar --module-path ../../native/javafx-sdk-17.0.12/lib --add-modules javafx.controls,javafx.fxml,javafx.graphics -Xmx1g com.baber.SudokuUI
 
@@ -0,0 +1,154 @@
+package com.baber;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * appends puzzles of one grid size to a new archive in the PuzzleArchive format
+ */
+@Slf4j
+class ArchiveWriter implements Closeable {
+    static final String USAGE = "usage: pack [--size n] [file|-] archive";
+
+    private final OutputStream out;
+
+    private final int gridSize;
+
+    private final byte[] record;
+
+    private int count;
+
+    ArchiveWriter(Path path, int gridSize) throws IOException {
+        this(open(path, gridSize), gridSize);
+    }
+
+    ArchiveWriter(OutputStream out, int gridSize) throws IOException {
+        Puzzle.boxSizeOf(gridSize);
+        this.out = new BufferedOutputStream(out, 1 << 16);
+        this.gridSize = gridSize;
+        this.record = new byte[PuzzleArchive.recordLength(gridSize)];
+        this.out.write(PuzzleArchive.header(gridSize));
+    }
+
+    /**
+     * the archive file, only created once the grid size is known to be supported
+     */
+    private static OutputStream open(Path path, int gridSize) throws IOException {
+        Puzzle.boxSizeOf(gridSize);
+        return Files.newOutputStream(path);
+    }
+
+    /**
+     * pack a line format or sudoku.sav corpus, or stdin, into an archive, skipping records that do not parse
+     */
+    @SuppressWarnings("PMD.DoNotCallSystemExit")
+    public static void main(final String[] args) throws IOException {
+        int size = Puzzle.CELL_COUNT;
+        String file = "-";
+        String archive = null;
+        int positionals = 0;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("--size".equals(args[i])) {
+                    size = Integer.parseInt(args[++i]);
+                } else if (++positionals > 2) {
+                    throw new IllegalArgumentException(USAGE);
+                } else if (archive == null) {
+                    archive = args[i];
+                } else {
+                    file = archive;
+                    archive = args[i];
+                }
+            }
+            if (archive == null) {
+                throw new IllegalArgumentException(USAGE);
+            }
+            Puzzle.boxSizeOf(size);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exc) {
+            log.error(USAGE);
+            System.exit(1);
+        }
+
+        try (ArchiveWriter writer = new ArchiveWriter(Paths.get(archive), size)) {
+            if ("-".equals(file)) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII));
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        try {
+                            writer.tryAppend(Puzzle.parse(line.trim()));
+                        } catch (IllegalArgumentException exc) {
+                            log.warn("Skipped {}", exc.getMessage());
+                        }
+                    }
+                }
+            } else if (PuzzleArchive.isArchive(Paths.get(file))) {
+                try (PuzzleArchive source = new PuzzleArchive(Paths.get(file))) {
+                    for (int i = 0; i < source.size(); i++) {
+                        writer.tryAppend(source.get(i));
+                    }
+                }
+            } else {
+                try (CorpusReader corpus = new CorpusReader(Paths.get(file), size)) {
+                    for (CorpusReader.Chunk chunk : corpus.chunks()) {
+                        Puzzle puzzle;
+                        while ((puzzle = chunk.read()) != null) {
+                            writer.tryAppend(puzzle);
+                        }
+                    }
+                }
+            }
+            log.info("Packed {} puzzles into {}", writer.size(), archive);
+        }
+    }
+
+    /**
+     * write the puzzle as an archive of one, replacing the file
+     */
+    static void save(Path path, Puzzle puzzle) throws IOException {
+        try (ArchiveWriter writer = new ArchiveWriter(path, puzzle.size)) {
+            writer.append(puzzle);
+        }
+    }
+
+    private void tryAppend(Puzzle puzzle) throws IOException {
+        if (puzzle.error.isPresent()) {
+            log.warn("Skipped {}", puzzle.error.get());
+        } else if (puzzle.size != gridSize) {
+            log.warn("Skipped a {}x{} puzzle in a {}x{} archive", puzzle.size, puzzle.size, gridSize, gridSize);
+        } else {
+            append(puzzle);
+        }
+    }
+
+    public void append(Puzzle puzzle) throws IOException {
+        if (puzzle.size != gridSize) {
+            throw new IllegalArgumentException("Puzzle size " + puzzle.size + " does not match archive size " + gridSize);
+        }
+        PuzzleArchive.pack(puzzle, record);
+        out.write(record);
+        count++;
+    }
+
+    /**
+     * the puzzles appended so far
+     */
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
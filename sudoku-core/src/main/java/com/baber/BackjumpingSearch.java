@@ -0,0 +1,417 @@
+package com.baber;
+
+import java.util.Arrays;
+
+/**
+ * depth first search with conflict-directed backjumping, every placed value keeps the set of branch decisions it
+ * follows from, so a dead end names the decisions that caused it and the search unwinds straight to the latest of
+ * them instead of trying the siblings of every decision in between
+ *
+ * a node whose branches all failed learns the decisions behind it as a nogood, kept in a bounded store and checked
+ * before each branch so the same combination is not searched again when it turns up in another order or after a
+ * restart
+ *
+ * decision sets are bitsets over the search levels, level 0 being the clues and the root propagation which no
+ * decision can undo, the elimination techniques keep no reasons so they are not run by this search
+ */
+class BackjumpingSearch {
+    /**
+     * how many nogoods are kept, the oldest is overwritten once the store is full
+     */
+    static final int NOGOOD_CAPACITY = 1024;
+
+    /**
+     * longer nogoods rarely match again and are not stored
+     */
+    static final int MAX_NOGOOD_LENGTH = 8;
+
+    private final Puzzle puzzle;
+
+    private final int size;
+
+    /**
+     * longs per decision set
+     */
+    private final int words;
+
+    /**
+     * the decisions each placed cell follows from, stale once the cell is unset
+     */
+    private final long[] reasons;
+
+    /**
+     * the decisions behind the latest dead end, filled in by the propagator hooks or by a node whose branches all
+     * failed
+     */
+    private final long[] conflict;
+
+    /**
+     * per level the decisions behind the branches that failed so far, and scratch for the explanations in progress
+     */
+    private final long[] failed;
+    private final long[] scratch;
+    private final long[] unitScratch;
+
+    /**
+     * the cell and value chosen at each level, levels start at 1
+     */
+    private final int[] decisionCells;
+    private final int[] decisionValues;
+
+    private final int[][] orders;
+    private final int[] branches;
+
+    /**
+     * the nogoods as cell * size + value - 1 literals, MAX_NOGOOD_LENGTH slots per nogood
+     */
+    private final int[] nogoods = new int[NOGOOD_CAPACITY * MAX_NOGOOD_LENGTH];
+    private final int[] nogoodLengths = new int[NOGOOD_CAPACITY];
+    private int nextNogood;
+
+    /**
+     * per literal the nogoods that held it when stored, an entry whose nogood has since been overwritten is skipped
+     * and dropped when the list is next grown
+     */
+    private final int[][] occurrences;
+    private final int[] occurrenceCounts;
+
+    private long budget;
+
+    private boolean restarting;
+
+    BackjumpingSearch(Puzzle root) {
+        puzzle = new Puzzle(root);
+        puzzle.techniques = null;
+        puzzle.startTrail();
+        puzzle.backjumping = this;
+        size = puzzle.size;
+        int cellCount = puzzle.getCellCount();
+        words = (cellCount + 64) >>> 6;
+        reasons = new long[cellCount * words];
+        conflict = new long[words];
+        failed = new long[(cellCount + 1) * words];
+        scratch = new long[words];
+        unitScratch = new long[words];
+        decisionCells = new int[cellCount + 1];
+        decisionValues = new int[cellCount + 1];
+        orders = new int[cellCount + 1][];
+        branches = new int[cellCount + 1];
+        occurrences = new int[cellCount * size][];
+        occurrenceCounts = new int[cellCount * size];
+    }
+
+    /**
+     * search from the root, starting over whenever the branching strategy's node budget runs out, the nogoods carry
+     * over to the next attempt
+     */
+    public Puzzle solve() {
+        BranchStrategy strategy = puzzle.getBranching();
+        budget = strategy.restartLimit(0);
+        try {
+            if (!expand(0)) {
+                return null;
+            }
+            int root = puzzle.trailMark();
+            for (int restart = 1; ; restart++) {
+                if (descend(0)) {
+                    return puzzle;
+                }
+                if (!restarting) {
+                    return null;
+                }
+                puzzle.undo(root);
+                restarting = false;
+                budget = strategy.restartLimit(restart);
+                if (puzzle.stats != null) {
+                    puzzle.stats.restarts++;
+                }
+            }
+        } finally {
+            puzzle.backjumping = null;
+        }
+    }
+
+    /**
+     * branch on a propagated node, false when no branch leads to a solution, conflict then holds the decisions
+     * above this node that are to blame
+     */
+    private boolean descend(int level) {
+        if (puzzle.isSolved()) {
+            return true;
+        }
+
+        int[] values = values(level);
+        int cell = fork(level, values);
+        int mark = puzzle.trailMark();
+        int child = level + 1;
+        int failedAt = level * words;
+        Arrays.fill(failed, failedAt, failedAt + words, 0);
+        for (int i = 0; i < branches[level]; i++) {
+            decisionCells[child] = cell;
+            decisionValues[child] = values[i];
+            if (!isNogood(child)) {
+                puzzle.set(cell, values[i]);
+                Arrays.fill(reasons, cell * words, cell * words + words, 0);
+                reasons[cell * words + (child >>> 6)] |= 1L << child;
+                if (puzzle.trace != null) {
+                    puzzle.trace.placed(cell, values[i], SolveTrace.Step.BRANCH);
+                }
+                if (expand(child) && descend(child)) {
+                    return true;
+                }
+                if (restarting || puzzle.isCancelled()) {
+                    return false;
+                }
+                puzzle.undo(mark);
+            }
+            if ((conflict[child >>> 6] & (1L << child)) == 0) {
+                // the branch failed without this decision, so its siblings fail the same way
+                if (puzzle.stats != null) {
+                    puzzle.stats.backjumps++;
+                }
+                return false;
+            }
+            conflict[child >>> 6] &= ~(1L << child);
+            union(failed, failedAt, conflict, 0);
+        }
+
+        // every candidate failed, the values that never were candidates are down to the peers holding them
+        int absent = puzzle.allValues & ~puzzle.candidateMask(cell / size, cell % size);
+        union(failed, failedAt, explainAbsent(cell, absent), 0);
+        System.arraycopy(failed, failedAt, conflict, 0, words);
+        learn();
+        return false;
+    }
+
+    /**
+     * propagate at a new node, false when it is a dead end, with conflict filled in by the propagator, or when the
+     * search was cancelled or ran out of budget
+     */
+    private boolean expand(int level) {
+        SolveStats stats = puzzle.stats;
+        if (stats != null) {
+            stats.nodes++;
+            stats.frontier(level);
+        }
+        if (--budget < 0) {
+            restarting = true;
+            return false;
+        }
+        if (!puzzle.propagate()) {
+            if (stats != null) {
+                stats.deadEnds++;
+            }
+            if (puzzle.trace != null) {
+                puzzle.trace.deadEnd(level);
+            }
+            return false;
+        }
+        return !puzzle.isCancelled();
+    }
+
+    private int[] values(int level) {
+        if (orders[level] == null) {
+            orders[level] = new int[size];
+        }
+        return orders[level];
+    }
+
+    private int fork(int level, int[] values) {
+        BranchStrategy strategy = puzzle.getBranching();
+        int cell = strategy.selectCell(puzzle);
+        int count = strategy.orderValues(puzzle, cell, values);
+        branches[level] = count;
+        if (puzzle.stats != null) {
+            puzzle.stats.forks += count;
+        }
+        ForkEvent.emit(cell, count, level);
+        if (puzzle.trace != null) {
+            puzzle.trace.forked(cell, count, level);
+        }
+        return cell;
+    }
+
+    /**
+     * a naked single is about to be placed, it follows from the peers holding every other value
+     */
+    void explainNakedSingle(int cell, int value) {
+        keepReason(cell, explainAbsent(cell, puzzle.allValues & ~Puzzle.bit(value)));
+    }
+
+    /**
+     * a hidden single is about to be placed, it follows from every other cell of the unit being taken or having
+     * lost the value
+     */
+    void explainHiddenSingle(int unit, int cell, int bit) {
+        keepReason(cell, explainUnit(unit, cell, bit));
+    }
+
+    /**
+     * the propagator found a cell without candidates
+     */
+    void explainEmptyCell(int cell) {
+        System.arraycopy(explainAbsent(cell, puzzle.allValues), 0, conflict, 0, words);
+    }
+
+    /**
+     * the propagator found a unit with nowhere to put one of the values
+     */
+    void explainMissingValue(int unit, int bits) {
+        System.arraycopy(explainUnit(unit, -1, Integer.lowestOneBit(bits)), 0, conflict, 0, words);
+    }
+
+    private void keepReason(int cell, long[] reason) {
+        System.arraycopy(reason, 0, reasons, cell * words, words);
+    }
+
+    /**
+     * the decisions that took the value out of every cell of the unit but the one skipped
+     */
+    private long[] explainUnit(int unit, int skip, int bit) {
+        long[] explanation = unitScratch;
+        Arrays.fill(explanation, 0);
+        for (int i = 0; i < size; i++) {
+            int other = puzzle.unitCell(unit, i);
+            if (other == skip) {
+                continue;
+            }
+            if (puzzle.get(other) != 0) {
+                union(explanation, 0, reasons, other * words);
+            } else {
+                union(explanation, 0, explainAbsent(other, bit), 0);
+            }
+        }
+        return explanation;
+    }
+
+    /**
+     * the decisions behind the peers that rule the values out of an unset cell, one peer per value, values no peer
+     * holds were eliminated before the search started
+     */
+    private long[] explainAbsent(int cell, int bits) {
+        Arrays.fill(scratch, 0);
+        int row = cell / size;
+        int col = cell % size;
+        for (int kind = 0; kind < 3; kind++) {
+            int unit = kind == 0 ? row : kind == 1 ? size + col : 2 * size + puzzle.box(row, col);
+            for (int i = 0; i < size && bits != 0; i++) {
+                int peer = puzzle.unitCell(unit, i);
+                int value = puzzle.get(peer);
+                if (value != 0 && (bits & Puzzle.bit(value)) != 0) {
+                    bits &= ~Puzzle.bit(value);
+                    union(scratch, 0, reasons, peer * words);
+                }
+            }
+        }
+        return scratch;
+    }
+
+    private void union(long[] target, int targetAt, long[] source, int sourceAt) {
+        for (int i = 0; i < words; i++) {
+            target[targetAt + i] |= source[sourceAt + i];
+        }
+    }
+
+    private int literal(int cell, int value) {
+        return cell * size + value - 1;
+    }
+
+    /**
+     * store the decisions in conflict as a nogood, unless there are too many of them
+     */
+    private void learn() {
+        int length = 0;
+        for (int i = 0; i < words; i++) {
+            length += Long.bitCount(conflict[i]);
+        }
+        if (length == 0 || length > MAX_NOGOOD_LENGTH) {
+            return;
+        }
+        int slot = nextNogood;
+        nextNogood = (nextNogood + 1) % NOGOOD_CAPACITY;
+        int at = slot * MAX_NOGOOD_LENGTH;
+        for (int i = 0; i < words; i++) {
+            for (long bits = conflict[i]; bits != 0; bits &= bits - 1) {
+                int level = (i << 6) + Long.numberOfTrailingZeros(bits);
+                int literal = literal(decisionCells[level], decisionValues[level]);
+                nogoods[at++] = literal;
+                occur(literal, slot);
+            }
+        }
+        nogoodLengths[slot] = length;
+        if (puzzle.stats != null) {
+            puzzle.stats.nogoods++;
+        }
+    }
+
+    private void occur(int literal, int slot) {
+        int[] slots = occurrences[literal];
+        int count = occurrenceCounts[literal];
+        if (slots == null) {
+            slots = new int[4];
+        } else if (count == slots.length) {
+            // drop the entries of overwritten nogoods before growing
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (holds(slots[i], literal)) {
+                    slots[kept++] = slots[i];
+                }
+            }
+            count = kept;
+            if (count == slots.length) {
+                slots = Arrays.copyOf(slots, 2 * slots.length);
+            }
+        }
+        slots[count++] = slot;
+        occurrences[literal] = slots;
+        occurrenceCounts[literal] = count;
+    }
+
+    private boolean holds(int slot, int literal) {
+        int at = slot * MAX_NOGOOD_LENGTH;
+        for (int i = 0; i < nogoodLengths[slot]; i++) {
+            if (nogoods[at + i] == literal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * true when the decision about to be made at the level completes a stored nogood, conflict then holds the
+     * decisions behind the rest of the nogood along with the level itself
+     */
+    private boolean isNogood(int level) {
+        int decision = literal(decisionCells[level], decisionValues[level]);
+        int[] slots = occurrences[decision];
+        for (int i = 0; i < occurrenceCounts[decision]; i++) {
+            int slot = slots[i];
+            if (holds(slot, decision) && isViolated(slot, decision)) {
+                Arrays.fill(conflict, 0);
+                int at = slot * MAX_NOGOOD_LENGTH;
+                for (int j = 0; j < nogoodLengths[slot]; j++) {
+                    if (nogoods[at + j] != decision) {
+                        union(conflict, 0, reasons, nogoods[at + j] / size * words);
+                    }
+                }
+                conflict[level >>> 6] |= 1L << level;
+                if (puzzle.stats != null) {
+                    puzzle.stats.nogoodHits++;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isViolated(int slot, int decision) {
+        int at = slot * MAX_NOGOOD_LENGTH;
+        for (int i = 0; i < nogoodLengths[slot]; i++) {
+            int literal = nogoods[at + i];
+            if (literal != decision && puzzle.get(literal / size) != literal % size + 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,334 @@
+package com.baber;
+
+import com.google.common.base.Stopwatch;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * headless batch mode, reads one puzzle per line from a file or stdin, solves them on a pool of threads
+ * and writes one status and grid per line to stdout in input order
+ */
+@Slf4j
+class BatchSolve {
+    static final String USAGE = "usage: batch [--threads n] [--engine " + Arrays.toString(Engine.values()) + "] [--branching " + Arrays.toString(Branching.values()) + "] [--techniques all|" + Technique.values()[0] + ",...] [--count cap] [--size n] [--cache n] [--trace steps] [file|-]";
+
+    /**
+     * how many puzzles each thread may have queued ahead of the writer
+     */
+    private static final int WINDOW_PER_THREAD = 64;
+
+    enum Status {
+        SOLVED, UNIQUE, MULTIPLE, UNSOLVABLE, INVALID, TIMEOUT
+    }
+
+    /**
+     * the status and the solved grid, or the status and the input when it could not be solved
+     */
+    @Value
+    static class Result {
+        Status status;
+        String grid;
+    }
+
+    private final Solver solver;
+
+    private final int threads;
+
+    /**
+     * when set the solutions are counted up to this cap instead of solved
+     */
+    private final int countCap;
+
+    private final int[] counts = new int[Status.values().length];
+
+    /**
+     * the search counters of every puzzle solved, so strategies can be compared on a whole corpus
+     */
+    private SolveStats totals = new SolveStats();
+
+    /**
+     * solves won by each configuration of a portfolio
+     */
+    private final Map<String, LongAdder> winners = new ConcurrentHashMap<>();
+
+    private final Deque<Future<Result>> pending = new ArrayDeque<>();
+
+    private ExecutorService pool;
+
+    private Stopwatch stopwatch;
+
+    BatchSolve(Solver solver, int threads) {
+        this(solver, threads, 0);
+    }
+
+    BatchSolve(Solver solver, int threads, int countCap) {
+        this.solver = solver;
+        this.threads = threads;
+        this.countCap = countCap;
+    }
+
+    @SuppressWarnings("PMD.DoNotCallSystemExit")
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        Solver solver = Engine.BREADTH_FIRST;
+        BranchStrategy branching = null;
+        Technique[] techniques = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int countCap = 0;
+        int size = Puzzle.CELL_COUNT;
+        int cacheSize = 0;
+        String file = "-";
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("--threads".equals(args[i])) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if ("--engine".equals(args[i])) {
+                    solver = Engine.valueOf(args[++i]);
+                } else if ("--branching".equals(args[i])) {
+                    branching = Branching.valueOf(args[++i]);
+                } else if ("--techniques".equals(args[i])) {
+                    techniques = parseTechniques(args[++i]);
+                } else if ("--count".equals(args[i])) {
+                    countCap = Integer.parseInt(args[++i]);
+                } else if ("--size".equals(args[i])) {
+                    size = Integer.parseInt(args[++i]);
+                } else if ("--cache".equals(args[i])) {
+                    cacheSize = Integer.parseInt(args[++i]);
+                } else if ("--trace".equals(args[i])) {
+                    int steps = Integer.parseInt(args[++i]);
+                    if (steps < 1) {
+                        throw new IllegalArgumentException("--trace " + steps);
+                    }
+                    Sudoku.registerTrace(() -> new TraceRecorder(steps));
+                } else {
+                    file = args[i];
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exc) {
+            log.error(USAGE);
+            System.exit(1);
+        }
+
+        if (branching != null) {
+            solver = solver.withBranching(branching);
+        }
+        if (techniques != null) {
+            solver = solver.withTechniques(techniques);
+        }
+        SolveCache cache = null;
+        if (cacheSize > 0) {
+            cache = new SolveCache(solver, cacheSize);
+            solver = cache;
+        }
+
+        BatchSolve batch = new BatchSolve(solver, threads, countCap);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII), 1 << 16)) {
+            if ("-".equals(file)) {
+                batch.run(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII)), out);
+            } else if (PuzzleArchive.isArchive(Paths.get(file))) {
+                try (PuzzleArchive archive = new PuzzleArchive(Paths.get(file))) {
+                    batch.run(archive, out);
+                }
+            } else {
+                try (CorpusReader corpus = new CorpusReader(Paths.get(file), size)) {
+                    batch.run(corpus, out);
+                }
+            }
+        }
+        if (cache != null) {
+            log.info("Solve cache {} hits, {} misses, {} bypassed, {} entries",
+                    cache.hitCount(), cache.missCount(), cache.bypassCount(), cache.size());
+        }
+    }
+
+    /**
+     * all, or the technique names separated by commas in the order they should run
+     */
+    static Technique[] parseTechniques(String list) {
+        if ("all".equals(list)) {
+            return Technique.values();
+        }
+        String[] names = list.split(",");
+        Technique[] techniques = new Technique[names.length];
+        for (int i = 0; i < names.length; i++) {
+            techniques[i] = Technique.valueOf(names[i].trim());
+        }
+        return techniques;
+    }
+
+    public void run(BufferedReader in, Writer out) throws IOException, InterruptedException {
+        start();
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String input = line.trim();
+                if (!input.isEmpty()) {
+                    submit(() -> solve(input), out);
+                }
+            }
+            finish(out);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * reads the mapped file on this thread so the output keeps the record order
+     */
+    public void run(CorpusReader corpus, Writer out) throws IOException, InterruptedException {
+        start();
+        try {
+            for (CorpusReader.Chunk chunk : corpus.chunks()) {
+                Puzzle puzzle;
+                while ((puzzle = chunk.read()) != null) {
+                    Puzzle input = puzzle;
+                    // echo a malformed line as it was written, as for standard input
+                    String line = input.error.isPresent() ? chunk.line() : null;
+                    submit(() -> line != null ? new Result(Status.INVALID, line) : solve(input), out);
+                }
+            }
+            finish(out);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public void run(PuzzleArchive archive, Writer out) throws IOException, InterruptedException {
+        start();
+        try {
+            for (int i = 0; i < archive.size(); i++) {
+                Puzzle input = archive.get(i);
+                submit(() -> solve(input), out);
+            }
+            finish(out);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void start() {
+        stopwatch = Stopwatch.createStarted();
+        pool = Executors.newFixedThreadPool(threads);
+        pending.clear();
+        Arrays.fill(counts, 0);
+        totals = new SolveStats();
+        winners.clear();
+    }
+
+    private void submit(Callable<Result> task, Writer out) throws IOException, InterruptedException {
+        pending.add(pool.submit(task));
+        if (pending.size() >= threads * WINDOW_PER_THREAD) {
+            write(pending.poll(), out);
+        }
+    }
+
+    private void finish(Writer out) throws IOException, InterruptedException {
+        while (!pending.isEmpty()) {
+            write(pending.poll(), out);
+        }
+        out.flush();
+
+        long elapsed = Math.max(1, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        int total = 0;
+        StringBuilder summary = new StringBuilder();
+        for (Status status : Status.values()) {
+            total += counts[status.ordinal()];
+            if (counts[status.ordinal()] > 0) {
+                summary.append(", ").append(counts[status.ordinal()]).append(' ').append(status.name().toLowerCase());
+            }
+        }
+        log.info("Processed {} puzzles in {} ms, {} puzzles/sec{}", total, elapsed, total * 1000L / elapsed, summary);
+        if (totals.nodes > 0) {
+            log.info("Searched {} nodes, {} forks, {} dead ends, {} restarts", totals.nodes, totals.forks,
+                    totals.deadEnds, totals.restarts);
+        }
+        if (totals.backjumps > 0 || totals.nogoods > 0) {
+            log.info("Backjumped {} times, learned {} nogoods, skipped {} branches on a nogood", totals.backjumps,
+                    totals.nogoods, totals.nogoodHits);
+        }
+        if (totals.propagations > 0) {
+            log.info("Propagated {} literals, learned {} clauses, deleted {}", totals.propagations,
+                    totals.learnedClauses, totals.deletedClauses);
+        }
+        if (!winners.isEmpty()) {
+            log.info("Portfolio wins {}", new TreeMap<>(winners));
+        }
+        String techniques = totals.techniqueSummary();
+        if (!techniques.isEmpty()) {
+            log.info("Techniques{}", techniques);
+        }
+    }
+
+    private void write(Future<Result> result, Writer out) throws IOException, InterruptedException {
+        Result solved;
+        try {
+            solved = result.get();
+        } catch (ExecutionException exc) {
+            throw new IllegalStateException("Solver failed", exc.getCause());
+        }
+        counts[solved.getStatus().ordinal()]++;
+        out.write(solved.getStatus().name());
+        out.write('\t');
+        out.write(solved.getGrid());
+        out.write('\n');
+    }
+
+    Result solve(String line) {
+        Puzzle puzzle;
+        try {
+            puzzle = Puzzle.parse(line);
+        } catch (IllegalArgumentException exc) {
+            return new Result(Status.INVALID, line);
+        }
+        return solve(puzzle);
+    }
+
+    Result solve(Puzzle puzzle) {
+        if (puzzle.error.isPresent() || !puzzle.isValid()) {
+            return new Result(Status.INVALID, puzzle.toLine());
+        }
+        if (countCap > 0) {
+            return count(puzzle);
+        }
+        SolveResult result = solver.solveWithStats(puzzle);
+        totals.add(result.getStats());
+        if (result.getStats().winner != null) {
+            winners.computeIfAbsent(result.getStats().winner, name -> new LongAdder()).increment();
+        }
+        Puzzle solution = result.getSolution();
+        if (solution == null) {
+            return new Result(Status.UNSOLVABLE, puzzle.toLine());
+        }
+        return new Result(Status.SOLVED, solution.toLine());
+    }
+
+    /**
+     * the input followed by the number of solutions, with a + when the cap cut the count short
+     */
+    private Result count(Puzzle puzzle) {
+        int found = Sudoku.countSolutions(puzzle, countCap);
+        Status status = found == 0 ? Status.UNSOLVABLE : found == 1 ? Status.UNIQUE : Status.MULTIPLE;
+        return new Result(status, puzzle.toLine() + "\t" + found + (found >= countCap ? "+" : ""));
+    }
+}
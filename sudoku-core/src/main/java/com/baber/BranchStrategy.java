@@ -0,0 +1,29 @@
+package com.baber;
+
+/**
+ * how a search splits a puzzle it can not settle by propagation, which unset cell to branch on and the order its
+ * candidates are tried in, attached to the puzzle and its forks for the length of one solve
+ *
+ * Branching has the built in strategies, the default is MRV; the interface is public so callers can pass those to
+ * Solver.withBranching, but its methods take the package private Puzzle, so new strategies can only be written
+ * inside com.baber
+ */
+public interface BranchStrategy {
+    /**
+     * the unset cell, row * size + col, to branch on, or -1 when every cell is set
+     */
+    int selectCell(Puzzle puzzle);
+
+    /**
+     * write the candidates of the cell into values in the order to try them, returning how many there are
+     */
+    int orderValues(Puzzle puzzle, int cell, int[] values);
+
+    /**
+     * the nodes a depth first search may expand before it gives up on the tree and starts over from the root,
+     * restart counts the restarts so far, strategies that never restart keep the default
+     */
+    default long restartLimit(int restart) {
+        return Long.MAX_VALUE;
+    }
+}
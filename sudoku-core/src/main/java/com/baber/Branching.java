@@ -0,0 +1,191 @@
+package com.baber;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * the built in branching strategies, selected per solve with Solver.withBranching
+ */
+public enum Branching implements BranchStrategy {
+    /**
+     * the first cell with the fewest candidates, values in ascending order
+     */
+    MRV {
+        @Override
+        public int selectCell(Puzzle puzzle) {
+            return puzzle.bestCell();
+        }
+    },
+
+    /**
+     * the fewest candidates, ties going to the cell with the most unset peers since its choice constrains the most
+     */
+    MRV_DEGREE {
+        @Override
+        public int selectCell(Puzzle puzzle) {
+            int bestCell = -1;
+            int bestCount = puzzle.size + 1;
+            int bestDegree = -1;
+            for (int cell = 0; cell < puzzle.getCellCount(); cell++) {
+                if (puzzle.get(cell) != 0) {
+                    continue;
+                }
+                int count = Integer.bitCount(puzzle.candidateMask(cell / puzzle.size, cell % puzzle.size));
+                if (count > bestCount) {
+                    continue;
+                }
+                int degree = peers(puzzle, cell, 0);
+                if (count < bestCount || degree > bestDegree) {
+                    bestCell = cell;
+                    bestCount = count;
+                    bestDegree = degree;
+                }
+            }
+            return bestCell;
+        }
+    },
+
+    /**
+     * the MRV cell, trying first the values that take the fewest candidates away from its unset peers
+     */
+    LEAST_CONSTRAINING {
+        @Override
+        public int selectCell(Puzzle puzzle) {
+            return puzzle.bestCell();
+        }
+
+        @Override
+        public int orderValues(Puzzle puzzle, int cell, int[] values) {
+            int count = super.orderValues(puzzle, cell, values);
+            int[] costs = new int[count];
+            for (int i = 0; i < count; i++) {
+                costs[i] = peers(puzzle, cell, Puzzle.bit(values[i]));
+            }
+            // a handful of values, an insertion sort keeps equal costs in ascending value order
+            for (int i = 1; i < count; i++) {
+                int value = values[i];
+                int cost = costs[i];
+                int j = i - 1;
+                for (; j >= 0 && costs[j] > cost; j--) {
+                    values[j + 1] = values[j];
+                    costs[j + 1] = costs[j];
+                }
+                values[j + 1] = value;
+                costs[j + 1] = cost;
+            }
+            return count;
+        }
+    },
+
+    /**
+     * a random cell among those with the fewest candidates and the values in random order, the search starts over
+     * after a node budget that follows the Luby sequence, so one unlucky early choice can not hold it for long
+     */
+    RANDOM_RESTARTS {
+        /**
+         * nodes per unit of the Luby sequence
+         */
+        private static final int RESTART_UNIT = 128;
+
+        @Override
+        public int selectCell(Puzzle puzzle) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int bestCell = -1;
+            int bestCount = puzzle.size + 1;
+            int ties = 0;
+            for (int cell = 0; cell < puzzle.getCellCount(); cell++) {
+                if (puzzle.get(cell) != 0) {
+                    continue;
+                }
+                int count = Integer.bitCount(puzzle.candidateMask(cell / puzzle.size, cell % puzzle.size));
+                if (count < bestCount) {
+                    bestCell = cell;
+                    bestCount = count;
+                    ties = 1;
+                } else if (count == bestCount && random.nextInt(++ties) == 0) {
+                    bestCell = cell;
+                }
+            }
+            return bestCell;
+        }
+
+        @Override
+        public int orderValues(Puzzle puzzle, int cell, int[] values) {
+            int count = super.orderValues(puzzle, cell, values);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = count - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int value = values[i];
+                values[i] = values[j];
+                values[j] = value;
+            }
+            return count;
+        }
+
+        @Override
+        public long restartLimit(int restart) {
+            return RESTART_UNIT * luby(restart + 1);
+        }
+    };
+
+    /**
+     * ascending order, the strategies that reorder start from it
+     */
+    @Override
+    public int orderValues(Puzzle puzzle, int cell, int[] values) {
+        int count = 0;
+        for (int mask = puzzle.candidateMask(cell / puzzle.size, cell % puzzle.size); mask != 0; mask &= mask - 1) {
+            values[count++] = Puzzle.lowestValue(mask);
+        }
+        return count;
+    }
+
+    /**
+     * the unset peers of the cell, only those with the value bit among their candidates unless bit is 0
+     */
+    static int peers(Puzzle puzzle, int cell, int bit) {
+        int size = puzzle.size;
+        int row = cell / size;
+        int col = cell % size;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (i != col && isOpenPeer(puzzle, row, i, bit)) {
+                count++;
+            }
+            if (i != row && isOpenPeer(puzzle, i, col, bit)) {
+                count++;
+            }
+        }
+        int baseRow = (row / puzzle.boxSize) * puzzle.boxSize;
+        int baseCol = (col / puzzle.boxSize) * puzzle.boxSize;
+        for (int i = baseRow; i < baseRow + puzzle.boxSize; i++) {
+            for (int j = baseCol; j < baseCol + puzzle.boxSize; j++) {
+                if (i != row && j != col && isOpenPeer(puzzle, i, j, bit)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean isOpenPeer(Puzzle puzzle, int row, int col, int bit) {
+        return puzzle.isUnSet(row, col) && (bit == 0 || (puzzle.candidateMask(row, col) & bit) != 0);
+    }
+
+    /**
+     * the i-th term, from 1, of the Luby sequence 1 1 2 1 1 2 4 1 1 2 ...
+     */
+    static long luby(int i) {
+        int k = 1;
+        while ((1L << k) - 1 < i) {
+            k++;
+        }
+        while (i != (1L << k) - 1) {
+            i -= (1 << (k - 1)) - 1;
+            k = 1;
+            while ((1L << k) - 1 < i) {
+                k++;
+            }
+        }
+        return 1L << (k - 1);
+    }
+}
@@ -0,0 +1,51 @@
+package com.baber;
+
+import com.google.common.collect.Lists;
+
+import java.util.List;
+
+/**
+ * the original propagate then fork loop, every level of the search is expanded before moving to the next
+ */
+class BreadthFirstSearch implements Solver {
+    @Override
+    public Puzzle solve(Puzzle root)
+    {
+        List<Puzzle> puzzleSteps = Lists.newArrayList();
+        puzzleSteps.add(root);
+        SolveStats stats = root.stats;
+        while (!puzzleSteps.isEmpty()) {
+            if (stats != null) {
+                stats.nodes += puzzleSteps.size();
+                stats.frontier(puzzleSteps.size());
+            }
+            List<Puzzle> live = Lists.newArrayList();
+            for (int i = 0; i< puzzleSteps.size(); i++) {
+                Puzzle puzzle = puzzleSteps.get(i);
+                if (puzzle.isCancelled()) {
+                    return null;
+                }
+                if (puzzle.propagate()) {
+                    if (puzzle.isSolved()) {
+                        return puzzle;
+                    }
+                    live.add(puzzle);
+                } else {
+                    if (stats != null) {
+                        stats.deadEnds++;
+                    }
+                    if (puzzle.trace != null) {
+                        puzzle.trace.deadEnd(puzzle.depth);
+                    }
+                }
+            }
+
+            List<Puzzle> forks = Lists.newArrayList();
+            for (Puzzle puzzle : live) {
+                forks.addAll(puzzle.fork());
+            }
+            puzzleSteps = forks;
+        }
+        return null;
+    }
+}
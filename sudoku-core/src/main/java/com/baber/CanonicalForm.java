@@ -0,0 +1,302 @@
+package com.baber;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.baber.Puzzle.CELL_COUNT;
+
+/**
+ * the smallest reading of a puzzle over the symmetries that map solutions onto solutions: transposing, reordering
+ * bands and stacks, reordering the rows of a band and the columns of a stack, and relabelling the values
+ *
+ * a reading takes the cells row by row with the values renumbered in order of first appearance, so every puzzle in
+ * a class of isomorphic puzzles has the same canonical form, and the transform that produced it maps a solution of
+ * the canonical puzzle back onto the original
+ */
+final class CanonicalForm {
+    /**
+     * a 9x9 grid has 2 x 6^8 arrangements, the next size up has far too many to search
+     */
+    static final int MAX_SIZE = CELL_COUNT;
+
+    /**
+     * arrangements still tied after the top band, a grid more symmetric than this is not worth canonicalising
+     */
+    static final int MAX_TIES = 4096;
+
+    /**
+     * the line orders that keep the bands intact, indexed by box size
+     */
+    private static final int[][][] ARRANGEMENTS = new int[MAX_SIZE + 1][][];
+
+    /**
+     * one arrangement for each choice of top band and the order of its lines, indexed by box size
+     */
+    private static final int[][][] TOPS = new int[MAX_SIZE + 1][][];
+
+    /**
+     * the canonical puzzle in the line format
+     */
+    final String key;
+
+    private final int size;
+
+    /**
+     * canonical row i reads row rowOrder[i] and column colOrder[j] of the grid, transposed first when transpose is set
+     */
+    private final boolean transpose;
+    private final int[] rowOrder;
+    private final int[] colOrder;
+
+    /**
+     * the canonical value of each original value, labels[0] is the blank
+     */
+    private final int[] labels;
+
+    private CanonicalForm(int size, int[] cells, Tie tie, int[] rowOrder, int[] labels) {
+        this.size = size;
+        this.transpose = tie.transpose;
+        this.rowOrder = rowOrder;
+        this.colOrder = tie.colOrder;
+        this.labels = labels;
+        StringBuilder line = new StringBuilder(cells.length);
+        for (int cell : cells) {
+            line.append(Puzzle.charOf(cell));
+        }
+        this.key = line.toString();
+    }
+
+    /**
+     * the canonical form of the puzzle, or null for a grid too large or too symmetric to search
+     */
+    static CanonicalForm of(Puzzle puzzle) {
+        int size = puzzle.size;
+        if (size > MAX_SIZE) {
+            return null;
+        }
+        int boxSize = puzzle.boxSize;
+        int[][] arrangements = arrangements(boxSize);
+        int[][] tops = TOPS[boxSize];
+        int[][] grid = puzzle.toGrid();
+        int[][] transposed = new int[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                transposed[col][row] = grid[row][col];
+            }
+        }
+
+        // the top band decides the first cells of the reading, keep every arrangement that ties on it
+        int bandCells = boxSize * size;
+        int[] best = new int[size * size];
+        Arrays.fill(best, Integer.MAX_VALUE);
+        List<Tie> ties = new ArrayList<>();
+        boolean overflow = false;
+        int[] labels = new int[size + 1];
+        for (int t = 0; t < 2; t++) {
+            int[][] reading = t == 0 ? grid : transposed;
+            for (int[] rows : tops) {
+                for (int[] cols : arrangements) {
+                    Arrays.fill(labels, 0);
+                    int next = read(reading, rows, cols, 0, boxSize, labels, 1, best, 0);
+                    if (next == 0) {
+                        continue;
+                    }
+                    if (next < 0) {
+                        ties.clear();
+                        overflow = false;
+                        next = -next;
+                    }
+                    if (ties.size() < MAX_TIES) {
+                        ties.add(new Tie(t == 1, reading, rows, cols, labels.clone(), next));
+                    } else {
+                        overflow = true;
+                    }
+                }
+            }
+        }
+        if (overflow) {
+            return null;
+        }
+
+        // the remaining bands and their rows settle the rest of the reading among the ties
+        Tie winner = null;
+        int[] winnerRows = null;
+        int[] winnerLabels = null;
+        int winnerNext = 0;
+        int[] scratch = new int[size + 1];
+        for (Tie tie : ties) {
+            for (int[] rows : arrangements) {
+                if (!samePrefix(rows, tie.rows, boxSize)) {
+                    continue;
+                }
+                System.arraycopy(tie.labels, 0, scratch, 0, scratch.length);
+                int next = read(tie.grid, rows, tie.colOrder, boxSize, size, scratch, tie.next, best, bandCells);
+                if (next < 0 || winner == null) {
+                    winner = tie;
+                    winnerRows = rows;
+                    winnerLabels = scratch.clone();
+                    winnerNext = Math.abs(next);
+                }
+            }
+        }
+
+        // values missing from the puzzle still need a label so the transform maps every value of a solution back
+        for (int value = 1; value <= size; value++) {
+            if (winnerLabels[value] == 0) {
+                winnerLabels[value] = winnerNext++;
+            }
+        }
+        return new CanonicalForm(size, best, winner, winnerRows, winnerLabels);
+    }
+
+    /**
+     * read rows from..to of the arrangement into best starting at offset, numbering values from next in order of first
+     * appearance, returns 0 when the reading is larger than best, the next free label when it ties and the negated
+     * next label when it is smaller and has replaced best from offset onwards
+     */
+    private static int read(int[][] grid, int[] rows, int[] cols, int from, int to, int[] labels, int next,
+                            int[] best, int offset) {
+        int size = cols.length;
+        boolean smaller = false;
+        int k = offset;
+        for (int i = from; i < to; i++) {
+            int[] row = grid[rows[i]];
+            for (int j = 0; j < size; j++, k++) {
+                int value = row[cols[j]];
+                if (value != 0) {
+                    if (labels[value] == 0) {
+                        labels[value] = next++;
+                    }
+                    value = labels[value];
+                }
+                if (!smaller) {
+                    if (value > best[k]) {
+                        return 0;
+                    }
+                    smaller = value < best[k];
+                }
+                if (smaller) {
+                    best[k] = value;
+                }
+            }
+        }
+        return smaller ? -next : next;
+    }
+
+    private static boolean samePrefix(int[] a, int[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * every order of the lines of a grid that moves whole bands and lines within their band
+     */
+    private static synchronized int[][] arrangements(int boxSize) {
+        if (ARRANGEMENTS[boxSize] == null) {
+            int size = boxSize * boxSize;
+            int[][] perms = permutations(boxSize);
+            int count = 1;
+            for (int i = 0; i <= boxSize; i++) {
+                count *= perms.length;
+            }
+            int[][] arrangements = new int[count][size];
+            for (int index = 0; index < count; index++) {
+                int rest = index;
+                int[] bands = perms[rest % perms.length];
+                rest /= perms.length;
+                for (int band = 0; band < boxSize; band++) {
+                    int[] lines = perms[rest % perms.length];
+                    rest /= perms.length;
+                    for (int line = 0; line < boxSize; line++) {
+                        arrangements[index][band * boxSize + line] = bands[band] * boxSize + lines[line];
+                    }
+                }
+            }
+            List<int[]> tops = new ArrayList<>();
+            for (int[] rows : arrangements) {
+                if (tops.stream().noneMatch(top -> samePrefix(top, rows, boxSize))) {
+                    tops.add(rows);
+                }
+            }
+            ARRANGEMENTS[boxSize] = arrangements;
+            TOPS[boxSize] = tops.toArray(new int[0][]);
+        }
+        return ARRANGEMENTS[boxSize];
+    }
+
+    private static int[][] permutations(int n) {
+        List<int[]> perms = new ArrayList<>();
+        permute(new int[n], new boolean[n], 0, perms);
+        return perms.toArray(new int[0][]);
+    }
+
+    private static void permute(int[] perm, boolean[] used, int position, List<int[]> perms) {
+        if (position == perm.length) {
+            perms.add(perm.clone());
+            return;
+        }
+        for (int i = 0; i < perm.length; i++) {
+            if (!used[i]) {
+                used[i] = true;
+                perm[position] = i;
+                permute(perm, used, position + 1, perms);
+                used[i] = false;
+            }
+        }
+    }
+
+    /**
+     * the canonical puzzle itself
+     */
+    Puzzle canonical() {
+        return Puzzle.parse(key);
+    }
+
+    /**
+     * map a solution of the canonical puzzle back onto the original grid
+     */
+    Puzzle restore(Puzzle solution) {
+        int[] values = new int[size + 1];
+        for (int value = 1; value <= size; value++) {
+            values[labels[value]] = value;
+        }
+        Puzzle restored = Puzzle.empty(size);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int value = values[solution.get(i, j)];
+                if (transpose) {
+                    restored.set(colOrder[j], rowOrder[i], value);
+                } else {
+                    restored.set(rowOrder[i], colOrder[j], value);
+                }
+            }
+        }
+        return restored;
+    }
+
+    /**
+     * an arrangement whose top band reads as small as the best one so far, with the labels it handed out
+     */
+    private static final class Tie {
+        final boolean transpose;
+        final int[][] grid;
+        final int[] rows;
+        final int[] colOrder;
+        final int[] labels;
+        final int next;
+
+        Tie(boolean transpose, int[][] grid, int[] rows, int[] colOrder, int[] labels, int next) {
+            this.transpose = transpose;
+            this.grid = grid;
+            this.rows = rows;
+            this.colOrder = colOrder;
+            this.labels = labels;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.baber;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.baber.Puzzle.CELL_COUNT;
+
+/**
+ * memory mapped reader for large puzzle files, records are parsed straight from the mapped bytes into puzzles
+ * and the file can be split into chunks on record boundaries so several consumers can read it in parallel
+ *
+ * two formats are told apart by the first line that is not blank: the sudoku.sav format of one value per line, 81
+ * lines per puzzle unless another grid size is given, when it holds one or two characters, otherwise one puzzle per
+ * line, 81 characters for the classic grid with 0 or . for blanks
+ */
+class CorpusReader implements Closeable {
+    enum Format {
+        LINE, SAVE
+    }
+
+    /**
+     * a mapping is indexed by int, so no chunk is allowed to grow much past this
+     */
+    private static final long MAX_CHUNK = 1L << 30;
+
+    /**
+     * enough bytes to find the end of the first line or a line break near a chunk boundary
+     */
+    private static final int WINDOW = 4096;
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private final Format format;
+
+    /**
+     * the values per row of the puzzles in a sav file, a line format file carries the size in its line length
+     */
+    private final int gridSize;
+
+    CorpusReader(Path path) throws IOException {
+        this(path, CELL_COUNT);
+    }
+
+    CorpusReader(Path path, int gridSize) throws IOException {
+        this.gridSize = gridSize;
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        size = channel.size();
+
+        MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, WINDOW));
+        int lineStart = 0;
+        while (lineStart < head.limit() && (head.get(lineStart) == '\n' || head.get(lineStart) == '\r')) {
+            lineStart++;
+        }
+        int lineEnd = lineStart;
+        while (lineEnd < head.limit() && head.get(lineEnd) != '\n') {
+            lineEnd++;
+        }
+        int lineLength = (lineEnd > lineStart && head.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd) - lineStart;
+        // anything longer than a sav value is taken for a line, a malformed one is then reported as invalid
+        format = lineLength > 0 && lineLength <= 2 ? Format.SAVE : Format.LINE;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * the whole file as a single chunk, or as few chunks as keep each mapping within range
+     */
+    public List<Chunk> chunks() throws IOException {
+        return split(1);
+    }
+
+    /**
+     * split the file into roughly equal chunks that start on a record boundary
+     */
+    public List<Chunk> split(int parts) throws IOException {
+        int count = (int) Math.max(parts, (size + MAX_CHUNK - 1) / MAX_CHUNK);
+        List<Chunk> chunks = new ArrayList<>(count);
+        long start = 0;
+        for (int i = 1; i <= count && start < size; i++) {
+            long end = i == count ? size : align(start, size / count * i);
+            if (end > start) {
+                chunks.add(new Chunk(start, end));
+                start = end;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * the first record boundary at or after the position, start is a boundary before it
+     */
+    private long align(long start, long position) throws IOException {
+        if (position <= 0 || position >= size) {
+            return Math.min(Math.max(position, 0), size);
+        }
+        if (format == Format.SAVE) {
+            return alignSave(start, position);
+        }
+
+        for (long from = position - 1; from < size; from += WINDOW) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(WINDOW, size - from));
+            for (int i = 0; i < window.limit(); i++) {
+                if (window.get(i) == '\n') {
+                    return from + i + 1;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * a sav record has no marker of its own and its length varies, values of one or two digits and either line
+     * ending, so the records are counted off line by line from the boundary at start, as readSave reads them
+     */
+    private long alignSave(long start, long position) throws IOException {
+        int cells = gridSize * gridSize;
+        int lines = 0;
+        boolean between = true;
+        for (long from = start; from < size; from += MAX_CHUNK) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(MAX_CHUNK, size - from));
+            for (int i = 0; i < window.limit(); i++) {
+                byte ch = window.get(i);
+                if (between) {
+                    if (from + i >= position) {
+                        return from + i;
+                    }
+                    if (Character.isWhitespace(ch)) {
+                        continue;
+                    }
+                    between = false;
+                }
+                if (ch == '\n' && ++lines == cells) {
+                    lines = 0;
+                    between = true;
+                }
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * a range of whole records, read one puzzle at a time by a single consumer
+     */
+    class Chunk {
+        private final long start;
+
+        private final long end;
+
+        private MappedByteBuffer buffer;
+
+        private int pos;
+
+        /**
+         * where the line last read starts and ends in the chunk, without the line break
+         */
+        private int lineStart;
+        private int lineEnd;
+
+        Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * the next puzzle, or null at the end of the chunk, a malformed record comes back with its error set
+         */
+        public Puzzle read() throws IOException {
+            if (buffer == null) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            }
+            return format == Format.LINE ? readLine() : readSave();
+        }
+
+        private Puzzle readLine() {
+            int limit = buffer.limit();
+            while (pos < limit && (buffer.get(pos) == '\n' || buffer.get(pos) == '\r')) {
+                pos++;
+            }
+            if (pos >= limit) {
+                return null;
+            }
+
+            lineStart = pos;
+            lineEnd = pos;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            pos = lineEnd + 1;
+            if (buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            int length = lineEnd - lineStart;
+
+            if (!Puzzle.isCellCount(length)) {
+                return invalid(new Puzzle(), lineStart);
+            }
+            Puzzle puzzle = Puzzle.empty(Puzzle.sizeOf(length));
+            for (int i = 0; i < length; i++) {
+                int value = Puzzle.valueOf(buffer.get(lineStart + i));
+                if (value < 0 || value > puzzle.size) {
+                    return invalid(puzzle, lineStart);
+                }
+                if (value != 0) {
+                    puzzle.set(i, value);
+                }
+            }
+            return puzzle;
+        }
+
+        /**
+         * the line the last puzzle was read from, trimmed, so an invalid one can be echoed as it was written, null
+         * for the sav format whose records span many lines
+         */
+        public String line() {
+            if (format != Format.LINE) {
+                return null;
+            }
+            byte[] bytes = new byte[lineEnd - lineStart];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(lineStart + i);
+            }
+            return new String(bytes, StandardCharsets.US_ASCII).trim();
+        }
+
+        private Puzzle readSave() {
+            int limit = buffer.limit();
+            while (pos < limit && Character.isWhitespace(buffer.get(pos))) {
+                pos++;
+            }
+            if (pos >= limit) {
+                return null;
+            }
+
+            int recordStart = pos;
+            boolean valid = true;
+            Puzzle puzzle = Puzzle.empty(gridSize);
+            for (int i = 0; i < puzzle.getCellCount(); i++) {
+                int value = 0;
+                int digits = 0;
+                while (pos < limit && buffer.get(pos) != '\n') {
+                    byte ch = buffer.get(pos++);
+                    if (ch >= '0' && ch <= '9') {
+                        value = value * 10 + ch - '0';
+                        digits++;
+                    } else if (ch != '\r') {
+                        valid = false;
+                    }
+                }
+                pos++;
+                if (digits == 0 || value > gridSize) {
+                    valid = false;
+                } else if (valid) {
+                    puzzle.set(i, value);
+                }
+            }
+            return valid ? puzzle : invalid(puzzle, recordStart);
+        }
+
+        private Puzzle invalid(Puzzle puzzle, int offset) {
+            puzzle.error = Optional.of("Invalid puzzle record at byte " + (start + offset));
+            return puzzle;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.baber;
+
+/**
+ * Knuth's Algorithm X over a dancing links exact cover matrix
+ *
+ * each matrix row is a cell and value, the columns are the four constraints every solution satisfies exactly once:
+ * each cell has a value, and each value appears once per row, once per column and once per box
+ */
+class DancingLinks implements Solver {
+    @Override
+    public Puzzle solve(Puzzle puzzle) {
+        int size = puzzle.getSize();
+        Matrix matrix = new Matrix(puzzle);
+        for (int cell = 0; cell < matrix.cells; cell++) {
+            int value = puzzle.get(cell);
+            if (value != 0 && !matrix.select(cell * size + value - 1)) {
+                return null;
+            }
+        }
+        if (!matrix.search()) {
+            return null;
+        }
+
+        Puzzle solution = new Puzzle(puzzle);
+        for (int i = 0; i < matrix.depth; i++) {
+            int row = matrix.solution[i];
+            solution.set(row / size, row % size + 1);
+        }
+        return solution;
+    }
+
+    /**
+     * the header is node 0, the column headers follow it and each matrix row adds four nodes
+     */
+    private static final class Matrix {
+        final int cells;
+        final int columns;
+
+        final int[] left;
+        final int[] right;
+        final int[] up;
+        final int[] down;
+        final int[] column;
+        final int[] rowOf;
+        final int[] size;
+
+        final int[] solution;
+        int depth;
+
+        final SolveStats stats;
+        final SolveTrace trace;
+        final Puzzle cancelled;
+        final int gridSize;
+
+        Matrix(Puzzle puzzle) {
+            int n = puzzle.getSize();
+            cells = n * n;
+            columns = 4 * cells;
+            int nodes = 1 + columns + cells * n * 4;
+            left = new int[nodes];
+            right = new int[nodes];
+            up = new int[nodes];
+            down = new int[nodes];
+            column = new int[nodes];
+            rowOf = new int[nodes];
+            size = new int[columns + 1];
+            solution = new int[cells];
+            stats = puzzle.stats;
+            trace = puzzle.trace;
+            cancelled = puzzle;
+            gridSize = n;
+
+            for (int node = 0; node <= columns; node++) {
+                left[node] = node == 0 ? columns : node - 1;
+                right[node] = node == columns ? 0 : node + 1;
+                up[node] = node;
+                down[node] = node;
+                column[node] = node;
+            }
+
+            int node = columns + 1;
+            for (int row = 0; row < n; row++) {
+                for (int col = 0; col < n; col++) {
+                    int box = puzzle.box(row, col);
+                    for (int value = 0; value < n; value++) {
+                        int first = node;
+                        int matrixRow = (row * n + col) * n + value;
+                        node = append(node, matrixRow, first, 1 + row * n + col);
+                        node = append(node, matrixRow, first, 1 + cells + row * n + value);
+                        node = append(node, matrixRow, first, 1 + 2 * cells + col * n + value);
+                        node = append(node, matrixRow, first, 1 + 3 * cells + box * n + value);
+                    }
+                }
+            }
+        }
+        private int append(int node, int matrixRow, int first, int header) {
+            column[node] = header;
+            rowOf[node] = matrixRow;
+            up[node] = up[header];
+            down[node] = header;
+            down[up[header]] = node;
+            up[header] = node;
+            size[header]++;
+
+            left[node] = node == first ? node : node - 1;
+            right[node] = first;
+            right[left[node]] = node;
+            left[first] = node;
+            return node + 1;
+        }
+
+        /**
+         * place a given value, false when one of its constraints is already taken
+         */
+        boolean select(int matrixRow) {
+            int first = 1 + columns + matrixRow * 4;
+            int node = first;
+            do {
+                if (right[left[column[node]]] != column[node]) {
+                    return false;
+                }
+                cover(column[node]);
+                node = right[node];
+            } while (node != first);
+            return true;
+        }
+
+        boolean search() {
+            if (stats != null) {
+                stats.nodes++;
+                stats.frontier(depth);
+            }
+            if (right[0] == 0) {
+                return true;
+            }
+            if (cancelled.isCancelled()) {
+                return false;
+            }
+
+            int best = right[0];
+            for (int header = right[best]; header != 0; header = right[header]) {
+                if (size[header] < size[best]) {
+                    best = header;
+                }
+            }
+            if (size[best] == 0) {
+                if (stats != null) {
+                    stats.deadEnds++;
+                }
+                if (trace != null) {
+                    trace.deadEnd(depth);
+                }
+                return false;
+            }
+            if (stats != null) {
+                stats.forks += size[best];
+            }
+            ForkEvent.emit(best <= cells ? best - 1 : -1, size[best], depth);
+            if (trace != null) {
+                trace.forked(best <= cells ? best - 1 : -1, size[best], depth);
+            }
+
+            cover(best);
+            for (int node = down[best]; node != best; node = down[node]) {
+                solution[depth++] = rowOf[node];
+                if (trace != null) {
+                    trace.placed(rowOf[node] / gridSize, rowOf[node] % gridSize + 1, SolveTrace.Step.BRANCH);
+                }
+                for (int j = right[node]; j != node; j = right[j]) {
+                    cover(column[j]);
+                }
+                if (search()) {
+                    return true;
+                }
+                for (int j = left[node]; j != node; j = left[j]) {
+                    uncover(column[j]);
+                }
+                depth--;
+            }
+            uncover(best);
+            return false;
+        }
+
+        private void cover(int header) {
+            right[left[header]] = right[header];
+            left[right[header]] = left[header];
+            for (int i = down[header]; i != header; i = down[i]) {
+                for (int j = right[i]; j != i; j = right[j]) {
+                    up[down[j]] = up[j];
+                    down[up[j]] = down[j];
+                    size[column[j]]--;
+                }
+            }
+        }
+
+        private void uncover(int header) {
+            for (int i = up[header]; i != header; i = up[i]) {
+                for (int j = left[i]; j != i; j = left[j]) {
+                    size[column[j]]++;
+                    up[down[j]] = j;
+                    down[up[j]] = j;
+                }
+            }
+            right[left[header]] = header;
+            left[right[header]] = header;
+        }
+    }
+}
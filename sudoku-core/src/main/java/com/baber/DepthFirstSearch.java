@@ -0,0 +1,245 @@
+package com.baber;
+
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+/**
+ * backtracking search over a single working copy of the puzzle, assignments are undone from the trail
+ * so memory is bounded by the search depth rather than the width of the frontier
+ */
+class DepthFirstSearch {
+    /**
+     * a search per thread and grid size, reloaded for each subtree so a worker allocates nothing per subtree
+     */
+    private static final ThreadLocal<DepthFirstSearch[]> WORKSPACES =
+            ThreadLocal.withInitial(() -> new DepthFirstSearch[Puzzle.MAX_SIZE + 1]);
+
+    private final Puzzle puzzle;
+
+    /**
+     * polled at every node along with the cancellation carried by the puzzle, so another thread can stop the search
+     */
+    private BooleanSupplier cancelled;
+
+    /**
+     * when set the values of a branch are tried in random order, so an empty grid fills to a random solution
+     */
+    private final Random random;
+
+    /**
+     * the values each level of the search tries, in order, and how many, preallocated so a node allocates nothing
+     */
+    private final int[][] orders;
+    private final int[] branches;
+
+    /**
+     * nodes left before the attempt is abandoned for a restart
+     */
+    private long budget;
+
+    /**
+     * set once the budget ran out, the search unwinds to the root without trying the remaining siblings
+     */
+    private boolean restarting;
+
+    DepthFirstSearch(Puzzle root) {
+        this(root, () -> false);
+    }
+
+    DepthFirstSearch(Puzzle root, BooleanSupplier cancelled) {
+        this(root, cancelled, null);
+    }
+
+    DepthFirstSearch(Puzzle root, Random random) {
+        this(root, () -> false, random);
+    }
+
+    private DepthFirstSearch(Puzzle root, BooleanSupplier cancelled, Random random) {
+        puzzle = new Puzzle(root);
+        puzzle.startTrail();
+        this.cancelled = cancelled;
+        this.random = random;
+        orders = new int[puzzle.getCellCount() + 1][];
+        branches = new int[puzzle.getCellCount() + 1];
+    }
+
+    /**
+     * solve on the search kept by this thread for the grid size, the working copy and its trail are reused so only
+     * the solution, copied out before the next call reloads the search, is allocated
+     */
+    static Puzzle solveReusing(Puzzle root, BooleanSupplier cancelled) {
+        DepthFirstSearch[] searches = WORKSPACES.get();
+        DepthFirstSearch search = searches[root.size];
+        if (search == null) {
+            search = new DepthFirstSearch(root, cancelled);
+            searches[root.size] = search;
+        } else {
+            search.puzzle.copyFrom(root);
+            search.cancelled = cancelled;
+        }
+        try {
+            Puzzle solved = search.solve();
+            return solved == null ? null : new Puzzle(solved);
+        } finally {
+            // drop what belongs to this solve so the idle search does not keep it reachable
+            search.puzzle.stats = null;
+            search.puzzle.trace = null;
+            search.puzzle.cancelled = null;
+            search.puzzle.branching = null;
+            search.cancelled = null;
+        }
+    }
+
+    /**
+     * search from the root, starting over whenever the branching strategy's node budget for the attempt runs out
+     */
+    public Puzzle solve() {
+        BranchStrategy strategy = puzzle.getBranching();
+        budget = strategy.restartLimit(0);
+        if (!expand(0)) {
+            return null;
+        }
+        // the root is propagated, a restart undoes back to here rather than to the bare clues
+        int root = puzzle.trailMark();
+        for (int restart = 1; ; restart++) {
+            if (descend(0)) {
+                return puzzle;
+            }
+            if (!restarting) {
+                return null;
+            }
+            puzzle.undo(root);
+            restarting = false;
+            budget = strategy.restartLimit(restart);
+            if (puzzle.stats != null) {
+                puzzle.stats.restarts++;
+            }
+        }
+    }
+
+    /**
+     * count the solutions, stopping as soon as the cap is reached, a count covers the whole tree so it never restarts
+     */
+    public int count(int cap) {
+        budget = Long.MAX_VALUE;
+        return cap > 0 ? countFrom(cap, 0) : 0;
+    }
+
+    private int countFrom(int cap, int depth) {
+        if (!expand(depth)) {
+            return 0;
+        }
+        if (puzzle.isSolved()) {
+            return 1;
+        }
+
+        int found = 0;
+        int[] values = values(depth);
+        int cell = fork(depth, values);
+        int mark = puzzle.trailMark();
+        for (int i = 0; i < branches[depth] && found < cap; i++) {
+            branch(cell, values[i]);
+            found += countFrom(cap - found, depth + 1);
+            puzzle.undo(mark);
+        }
+        return found;
+    }
+
+    private boolean search(int depth) {
+        return expand(depth) && descend(depth);
+    }
+
+    /**
+     * branch on a propagated node, false when no branch leads to a solution or the budget ran out on the way
+     */
+    private boolean descend(int depth) {
+        if (puzzle.isSolved()) {
+            return true;
+        }
+
+        int[] values = values(depth);
+        int cell = fork(depth, values);
+        int mark = puzzle.trailMark();
+        for (int i = 0; i < branches[depth]; i++) {
+            branch(cell, values[i]);
+            if (search(depth + 1)) {
+                return true;
+            }
+            if (restarting) {
+                return false;
+            }
+            puzzle.undo(mark);
+        }
+        return false;
+    }
+
+    /**
+     * propagate at a new node, false when it is a dead end or the search was cancelled
+     */
+    private boolean expand(int depth) {
+        SolveStats stats = puzzle.stats;
+        if (stats != null) {
+            stats.nodes++;
+            stats.frontier(depth);
+        }
+        if (--budget < 0) {
+            restarting = true;
+            return false;
+        }
+        if (!puzzle.propagate()) {
+            if (stats != null) {
+                stats.deadEnds++;
+            }
+            if (puzzle.trace != null) {
+                puzzle.trace.deadEnd(depth);
+            }
+            return false;
+        }
+        return !cancelled.getAsBoolean() && !puzzle.isCancelled();
+    }
+
+    private int[] values(int depth) {
+        if (orders[depth] == null) {
+            orders[depth] = new int[puzzle.size];
+        }
+        return orders[depth];
+    }
+
+    /**
+     * the cell to split on with its values written in order into values, counted and reported with one branch per
+     * candidate
+     */
+    private int fork(int depth, int[] values) {
+        BranchStrategy strategy = puzzle.getBranching();
+        int cell = strategy.selectCell(puzzle);
+        int count = strategy.orderValues(puzzle, cell, values);
+        if (random != null) {
+            shuffle(values, count);
+        }
+        branches[depth] = count;
+        if (puzzle.stats != null) {
+            puzzle.stats.forks += count;
+        }
+        ForkEvent.emit(cell, count, depth);
+        if (puzzle.trace != null) {
+            puzzle.trace.forked(cell, count, depth);
+        }
+        return cell;
+    }
+
+    private void branch(int cell, int value) {
+        puzzle.set(cell, value);
+        if (puzzle.trace != null) {
+            puzzle.trace.placed(cell, value, SolveTrace.Step.BRANCH);
+        }
+    }
+
+    private void shuffle(int[] values, int count) {
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.baber;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * the solve engines available to callers that want to pick one per workload
+ */
+public enum Engine implements Solver {
+    BREADTH_FIRST(new BreadthFirstSearch()),
+    DEPTH_FIRST(Sudoku::solveDepthFirst),
+    PARALLEL(root -> Sudoku.solveParallel(root, ForkJoinPool.commonPool())),
+    DANCING_LINKS(new DancingLinks()),
+    BACKJUMPING(root -> new BackjumpingSearch(root).solve()),
+    SAT(new SudokuCnf()),
+    PORTFOLIO(root -> Portfolio.standard().solve(root));
+
+    private final Solver solver;
+
+    Engine(Solver solver) {
+        this.solver = solver;
+    }
+
+    @Override
+    public Puzzle solve(Puzzle puzzle) {
+        return solver.solve(puzzle);
+    }
+}
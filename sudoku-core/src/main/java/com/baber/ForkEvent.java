@@ -0,0 +1,39 @@
+package com.baber;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * flight recorder event for each point where a search splits, costing next to nothing unless a recording has the
+ * event enabled
+ */
+@Name("com.baber.Fork")
+@Label("Sudoku Fork")
+@Category("Sudoku")
+@Description("A search splitting on the candidates of a cell")
+@StackTrace(false)
+class ForkEvent extends Event {
+    @Label("Cell")
+    @Description("row * size + col of the cell split on, -1 when dancing links splits on a unit and value")
+    int cell;
+
+    @Label("Branches")
+    int branches;
+
+    @Label("Depth")
+    int depth;
+
+    static void emit(int cell, int branches, int depth) {
+        ForkEvent event = new ForkEvent();
+        if (event.isEnabled()) {
+            event.cell = cell;
+            event.branches = branches;
+            event.depth = depth;
+            event.commit();
+        }
+    }
+}
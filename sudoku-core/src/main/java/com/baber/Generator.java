@@ -0,0 +1,204 @@
+package com.baber;
+
+import com.google.common.base.Stopwatch;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.baber.Puzzle.CELL_COUNT;
+
+/**
+ * generates puzzles with a unique solution, a random complete grid is filled by randomized search
+ * and clues are removed in random order for as long as the solution stays unique
+ *
+ * every puzzle has its own random stream derived from the seed and its index, so a run is reproducible
+ * no matter how many threads produce it
+ */
+@Slf4j
+class Generator {
+    static final String USAGE = "usage: generate [--count n] [--clues n] [--difficulty " + Arrays.toString(Difficulty.values())
+            + "] [--seed n] [--threads n]";
+
+    private static final int CELLS = CELL_COUNT * CELL_COUNT;
+
+    /**
+     * complete grids tried for one puzzle before giving up on the requested clue count and difficulty
+     */
+    private static final int MAX_ATTEMPTS = 100;
+
+    private static final int WINDOW_PER_THREAD = 16;
+
+    enum Difficulty {
+        /**
+         * solved by propagation alone
+         */
+        EASY,
+        /**
+         * needs at least one fork
+         */
+        HARD,
+        ANY
+    }
+
+    private final int clues;
+
+    private final Difficulty difficulty;
+
+    private final long seed;
+
+    Generator(int clues, Difficulty difficulty, long seed) {
+        this.clues = clues;
+        this.difficulty = difficulty;
+        this.seed = seed;
+    }
+
+    @SuppressWarnings("PMD.DoNotCallSystemExit")
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        int count = 1;
+        int clues = 30;
+        Difficulty difficulty = Difficulty.ANY;
+        long seed = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("--count".equals(args[i])) {
+                    count = Integer.parseInt(args[++i]);
+                } else if ("--clues".equals(args[i])) {
+                    clues = Integer.parseInt(args[++i]);
+                } else if ("--difficulty".equals(args[i])) {
+                    difficulty = Difficulty.valueOf(args[++i]);
+                } else if ("--seed".equals(args[i])) {
+                    seed = Long.parseLong(args[++i]);
+                } else if ("--threads".equals(args[i])) {
+                    threads = Integer.parseInt(args[++i]);
+                } else {
+                    throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exc) {
+            log.error(USAGE);
+            System.exit(1);
+        }
+
+        log.info("Generating {} puzzles with {} clues, difficulty {}, seed {}", count, clues, difficulty, seed);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII), 1 << 16)) {
+            new Generator(clues, difficulty, seed).generate(count, threads, out);
+        }
+    }
+
+    /**
+     * generate puzzles on a pool of threads, writing one per line in index order
+     */
+    public void generate(int count, int threads, Writer out) throws IOException, InterruptedException {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Deque<Future<Puzzle>> pending = new ArrayDeque<>();
+        int generated = 0;
+        try {
+            for (int index = 0; index < count || !pending.isEmpty(); index++) {
+                if (index < count) {
+                    long puzzleIndex = index;
+                    pending.add(pool.submit(() -> generate(puzzleIndex)));
+                }
+                if (index >= count || pending.size() >= threads * WINDOW_PER_THREAD) {
+                    Puzzle puzzle = pending.poll().get();
+                    if (puzzle != null) {
+                        out.write(puzzle.toLine());
+                        out.write('\n');
+                        generated++;
+                    }
+                }
+            }
+            out.flush();
+        } catch (ExecutionException exc) {
+            throw new IllegalStateException("Generator failed", exc.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long elapsed = Math.max(1, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        log.info("Generated {} of {} puzzles in {} ms, {} puzzles/sec", generated, count, elapsed, generated * 1000L / elapsed);
+    }
+
+    /**
+     * the puzzle for an index, or null when no attempt reached the clue count and difficulty
+     */
+    public Puzzle generate(long index) {
+        Random random = new Random(seed ^ (index * 0x9E3779B97F4A7C15L));
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Puzzle puzzle = removeClues(fill(random), random);
+            if (clueCount(puzzle) <= clues && hasDifficulty(puzzle)) {
+                return puzzle;
+            }
+        }
+        log.warn("No puzzle with {} clues and difficulty {} after {} attempts", clues, difficulty, MAX_ATTEMPTS);
+        return null;
+    }
+
+    /**
+     * a random complete grid
+     */
+    Puzzle fill(Random random) {
+        return new Puzzle(new DepthFirstSearch(new Puzzle(), random).solve());
+    }
+
+    /**
+     * blank the cells in random order, putting a value back whenever the solution stops being unique
+     */
+    Puzzle removeClues(Puzzle puzzle, Random random) {
+        int[] cells = new int[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            cells[i] = i;
+        }
+        for (int i = CELLS - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int cell = cells[i];
+            cells[i] = cells[j];
+            cells[j] = cell;
+        }
+
+        int remaining = CELLS;
+        for (int i = 0; i < CELLS && remaining > clues; i++) {
+            int value = puzzle.get(cells[i]);
+            puzzle.set(cells[i], 0);
+            if (new DepthFirstSearch(puzzle).count(2) == 1) {
+                remaining--;
+            } else {
+                puzzle.set(cells[i], value);
+            }
+        }
+        return puzzle;
+    }
+
+    private boolean hasDifficulty(Puzzle puzzle) {
+        if (difficulty == Difficulty.ANY) {
+            return true;
+        }
+        Puzzle propagated = new Puzzle(puzzle);
+        propagated.propagate();
+        return propagated.isSolved() == (difficulty == Difficulty.EASY);
+    }
+
+    static int clueCount(Puzzle puzzle) {
+        int count = 0;
+        for (int i = 0; i < CELLS; i++) {
+            if (puzzle.get(i) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
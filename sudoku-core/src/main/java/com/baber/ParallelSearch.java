@@ -0,0 +1,104 @@
+package com.baber;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * splits the search on the branches of Puzzle.fork() and lets the pool steal work to balance uneven subtrees,
+ * the first branch to find a solution publishes it and every other task stops at its next check
+ */
+class ParallelSearch {
+    /**
+     * at or past this depth, or once the worker has enough queued work, a branch is searched depth first on its own
+     * thread
+     */
+    private static final int MAX_SPLIT_DEPTH = 6;
+
+    private static final int SURPLUS_TASKS = 3;
+
+    private final AtomicReference<Puzzle> solution = new AtomicReference<>();
+
+    private final Puzzle root;
+
+    ParallelSearch(Puzzle root) {
+        this.root = root;
+    }
+
+    public Puzzle solve(ForkJoinPool pool) {
+        pool.invoke(new Branch(new Puzzle(root), 0));
+        return solution.get();
+    }
+
+    private boolean isCancelled() {
+        return solution.get() != null || root.isCancelled();
+    }
+
+    private class Branch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Puzzle puzzle;
+
+        private final int depth;
+
+        Branch(Puzzle puzzle, int depth) {
+            this.puzzle = puzzle;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            SolveStats total = puzzle.stats;
+            if (total == null) {
+                search();
+                return;
+            }
+            // the branches run on several threads, so each counts on its own and adds up when done
+            puzzle.stats = new SolveStats();
+            try {
+                search();
+            } finally {
+                total.add(puzzle.stats);
+            }
+        }
+
+        private void search() {
+            if (isCancelled()) {
+                return;
+            }
+            if (depth >= MAX_SPLIT_DEPTH || getSurplusQueuedTaskCount() > SURPLUS_TASKS) {
+                Puzzle solved = DepthFirstSearch.solveReusing(puzzle, ParallelSearch.this::isCancelled);
+                if (solved != null) {
+                    solution.compareAndSet(null, solved);
+                }
+                return;
+            }
+
+            if (puzzle.stats != null) {
+                puzzle.stats.nodes++;
+                puzzle.stats.frontier(depth);
+            }
+            if (!puzzle.propagate()) {
+                if (puzzle.stats != null) {
+                    puzzle.stats.deadEnds++;
+                }
+                if (puzzle.trace != null) {
+                    puzzle.trace.deadEnd(depth);
+                }
+                return;
+            }
+            if (puzzle.isSolved()) {
+                solution.compareAndSet(null, puzzle);
+                return;
+            }
+
+            List<Puzzle> forks = puzzle.fork();
+            Branch[] branches = new Branch[forks.size()];
+            for (int i = 0; i < branches.length; i++) {
+                branches[i] = new Branch(forks.get(i), depth + 1);
+            }
+            invokeAll(branches);
+        }
+    }
+}
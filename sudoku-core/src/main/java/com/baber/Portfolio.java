@@ -0,0 +1,164 @@
+package com.baber;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * races several solver configurations on the same puzzle and answers with whichever finishes first, a solution or
+ * the proof there is none, the others are then cancelled through the puzzle and unwind at their next node
+ *
+ * the racers share a fixed pool, so concurrent solves queue for the same small thread budget instead of each
+ * starting threads of its own; the winning configuration is recorded in the stats of the solve and counted here
+ */
+public class Portfolio implements Solver, AutoCloseable {
+    /**
+     * threads of the standard portfolio, one per configuration
+     */
+    static final int STANDARD_THREADS = 3;
+
+    private final List<Solver> configurations;
+
+    private final ExecutorService pool;
+
+    private final LongAdder[] wins;
+
+    public Portfolio(int threads, Solver... configurations) {
+        if (configurations.length == 0) {
+            throw new IllegalArgumentException("A portfolio needs at least one configuration");
+        }
+        this.configurations = List.of(configurations);
+        this.pool = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("sudoku-portfolio-%d").setDaemon(true).build());
+        this.wins = new LongAdder[configurations.length];
+        Arrays.setAll(wins, i -> new LongAdder());
+    }
+
+    /**
+     * propagation with depth first search, the same with randomized branching and restarts, and the breadth first
+     * loop, created on first use
+     */
+    public static Portfolio standard() {
+        return Standard.PORTFOLIO;
+    }
+
+    private static final class Standard {
+        static final Portfolio PORTFOLIO = new Portfolio(STANDARD_THREADS,
+                Engine.DEPTH_FIRST,
+                Engine.DEPTH_FIRST.withBranching(Branching.RANDOM_RESTARTS),
+                Engine.BREADTH_FIRST);
+    }
+
+    @Override
+    public String name() {
+        return "portfolio";
+    }
+
+    @Override
+    public Puzzle solve(Puzzle puzzle) {
+        AtomicBoolean decided = new AtomicBoolean();
+        CompletionService<Finish> race = new ExecutorCompletionService<>(pool);
+        Future<?>[] racers = new Future<?>[configurations.size()];
+        for (int i = 0; i < racers.length; i++) {
+            Solver configuration = configurations.get(i);
+            Puzzle copy = new Puzzle(puzzle);
+            // each racer counts on its own, only the winner's counters are kept
+            copy.stats = puzzle.stats == null ? null : new SolveStats();
+            copy.trace = null;
+            copy.cancelled = () -> decided.get() || puzzle.isCancelled();
+            int index = i;
+            racers[i] = race.submit(() -> new Finish(index, configuration.solve(copy), copy.stats));
+        }
+
+        try {
+            ExecutionException failure = null;
+            for (int finished = 0; finished < racers.length; finished++) {
+                Finish finish;
+                try {
+                    finish = race.take().get();
+                } catch (ExecutionException exc) {
+                    failure = exc;
+                    continue;
+                }
+                if (puzzle.isCancelled()) {
+                    return null;
+                }
+                decided.set(true);
+                win(puzzle, finish);
+                return release(puzzle, finish.solution);
+            }
+            throw new IllegalStateException("Every configuration failed", failure.getCause());
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            decided.set(true);
+            for (Future<?> racer : racers) {
+                racer.cancel(false);
+            }
+        }
+    }
+
+    private void win(Puzzle puzzle, Finish finish) {
+        wins[finish.index].increment();
+        if (puzzle.stats != null) {
+            puzzle.stats.add(finish.stats);
+            puzzle.stats.winner = configurations.get(finish.index).name();
+        }
+    }
+
+    /**
+     * hands the winner's solution back with the caller's hooks in place of the racer's, which would otherwise leave
+     * it and every copy made of it cancelled for good
+     */
+    private static Puzzle release(Puzzle puzzle, Puzzle solution) {
+        if (solution != null) {
+            solution.stats = puzzle.stats;
+            solution.trace = puzzle.trace;
+            solution.cancelled = puzzle.cancelled;
+        }
+        return solution;
+    }
+
+    /**
+     * the solves each configuration won so far, by name in portfolio order
+     */
+    public Map<String, Long> wins() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < wins.length; i++) {
+            counts.merge(configurations.get(i).name(), wins[i].sum(), Long::sum);
+        }
+        return counts;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * what a racer came back with
+     */
+    private static final class Finish {
+        final int index;
+        final Puzzle solution;
+        final SolveStats stats;
+
+        Finish(int index, Puzzle solution, SolveStats stats) {
+            this.index = index;
+            this.solution = solution;
+            this.stats = stats;
+        }
+    }
+}
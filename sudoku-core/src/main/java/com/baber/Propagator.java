@@ -0,0 +1,256 @@
+package com.baber;
+
+/**
+ * work queue behind Puzzle.propagate, set() reports each filled cell and only the peers and units it touched are
+ * revisited, naked and hidden singles then cascade until nothing is left in the queue
+ *
+ * candidates are still derived from the occupancy masks of the puzzle, the queue only records where to look
+ */
+class Propagator {
+    private final Puzzle puzzle;
+
+    private final int size;
+
+    /**
+     * unset cells to check for a single or an empty candidate mask
+     */
+    private final int[] cells;
+    private final boolean[] cellQueued;
+    private int cellCount;
+
+    /**
+     * units to check for hidden singles, restricted to the values whose places in the unit may have shrunk
+     */
+    private final int[] units;
+    private final int[] unitDirty;
+    private int unitCount;
+
+    /**
+     * a new queue holding every cell and unit, so the first run looks at the whole grid
+     */
+    Propagator(Puzzle puzzle) {
+        this.puzzle = puzzle;
+        this.size = puzzle.size;
+        cells = new int[size * size];
+        cellQueued = new boolean[size * size];
+        units = new int[3 * size];
+        unitDirty = new int[3 * size];
+        for (int cell = 0; cell < size * size; cell++) {
+            queueCell(cell);
+        }
+        for (int unit = 0; unit < 3 * size; unit++) {
+            queueUnit(unit, puzzle.allValues);
+        }
+    }
+
+    /**
+     * a queue for a copy of the puzzle, carrying over whatever the original had not processed yet
+     */
+    Propagator(Puzzle puzzle, Propagator other) {
+        this.puzzle = puzzle;
+        this.size = puzzle.size;
+        cells = new int[size * size];
+        cellQueued = new boolean[size * size];
+        units = new int[3 * size];
+        unitDirty = new int[3 * size];
+        copyFrom(other);
+    }
+
+    /**
+     * replace the queue with whatever the other one had not processed yet, keeping the arrays
+     */
+    void copyFrom(Propagator other) {
+        clear();
+        for (int i = 0; i < other.cellCount; i++) {
+            queueCell(other.cells[i]);
+        }
+        for (int i = 0; i < other.unitCount; i++) {
+            queueUnit(other.units[i], other.unitDirty[other.units[i]]);
+        }
+    }
+
+    /**
+     * a cell was given a value, its peers lost that value as a candidate and the cell itself left its units
+     */
+    void assigned(int row, int col, int value) {
+        int bit = Puzzle.bit(value);
+        int box = puzzle.box(row, col);
+        queueUnit(row, puzzle.allValues);
+        queueUnit(size + col, puzzle.allValues);
+        queueUnit(2 * size + box, puzzle.allValues);
+
+        for (int i = 0; i < size; i++) {
+            if (i != col) {
+                peer(row, i, bit);
+            }
+            if (i != row) {
+                peer(i, col, bit);
+            }
+        }
+        int baseRow = (row / puzzle.boxSize) * puzzle.boxSize;
+        int baseCol = (col / puzzle.boxSize) * puzzle.boxSize;
+        for (int i = baseRow; i < baseRow + puzzle.boxSize; i++) {
+            for (int j = baseCol; j < baseCol + puzzle.boxSize; j++) {
+                if (i != row && j != col) {
+                    peer(i, j, bit);
+                }
+            }
+        }
+    }
+
+    /**
+     * a value was taken out of the cell, its units need that value again and the cell itself may now be a single
+     */
+    void cleared(int row, int col) {
+        queueCell(row * size + col);
+        queueUnit(row, puzzle.allValues);
+        queueUnit(size + col, puzzle.allValues);
+        queueUnit(2 * size + puzzle.box(row, col), puzzle.allValues);
+    }
+
+    /**
+     * candidates were ruled out of an unset cell, it may now be a single and its units may have lost the last place
+     * for those values
+     */
+    void eliminated(int row, int col, int bits) {
+        queueCell(row * size + col);
+        queueUnit(row, bits);
+        queueUnit(size + col, bits);
+        queueUnit(2 * size + puzzle.box(row, col), bits);
+    }
+
+    private void peer(int row, int col, int bit) {
+        if (puzzle.isUnSet(row, col)) {
+            queueCell(row * size + col);
+            queueUnit(row, bit);
+            queueUnit(size + col, bit);
+            queueUnit(2 * size + puzzle.box(row, col), bit);
+        }
+    }
+
+    private void queueCell(int cell) {
+        if (!cellQueued[cell]) {
+            cellQueued[cell] = true;
+            cells[cellCount++] = cell;
+        }
+    }
+
+    private void queueUnit(int unit, int values) {
+        if (unitDirty[unit] == 0 && values != 0) {
+            units[unitCount++] = unit;
+        }
+        unitDirty[unit] |= values;
+    }
+
+    /**
+     * drain the queue, placing every naked and hidden single it turns up, false as soon as a cell has no candidates
+     * left or a unit has nowhere to put one of its values, in which case the queue is dropped
+     */
+    boolean run() {
+        while (true) {
+            if (cellCount > 0) {
+                if (!checkCell(cells[--cellCount])) {
+                    clear();
+                    return false;
+                }
+            } else if (unitCount > 0) {
+                if (!checkUnit(units[--unitCount])) {
+                    clear();
+                    return false;
+                }
+            } else {
+                return true;
+            }
+        }
+    }
+
+    private boolean checkCell(int cell) {
+        cellQueued[cell] = false;
+        int row = cell / size;
+        int col = cell % size;
+        if (puzzle.isSet(row, col)) {
+            return true;
+        }
+        int mask = puzzle.candidateMask(row, col);
+        if (mask == 0) {
+            if (puzzle.backjumping != null) {
+                puzzle.backjumping.explainEmptyCell(cell);
+            }
+            return false;
+        }
+        if ((mask & (mask - 1)) == 0) {
+            int value = Puzzle.lowestValue(mask);
+            if (puzzle.backjumping != null) {
+                puzzle.backjumping.explainNakedSingle(cell, value);
+            }
+            puzzle.set(row, col, value);
+            if (puzzle.stats != null) {
+                puzzle.stats.nakedSingles++;
+            }
+            if (puzzle.trace != null) {
+                puzzle.trace.placed(cell, value, SolveTrace.Step.NAKED_SINGLE);
+            }
+        }
+        return true;
+    }
+
+    private boolean checkUnit(int unit) {
+        int dirty = unitDirty[unit];
+        unitDirty[unit] = 0;
+
+        int placed = 0;
+        int once = 0;
+        int twice = 0;
+        for (int i = 0; i < size; i++) {
+            int cell = puzzle.unitCell(unit, i);
+            int row = cell / size;
+            int col = cell % size;
+            if (puzzle.isSet(row, col)) {
+                placed |= Puzzle.bit(puzzle.get(row, col));
+            } else {
+                int mask = puzzle.candidateMask(row, col);
+                twice |= once & mask;
+                once |= mask;
+            }
+        }
+        if (((placed | once) & dirty) != dirty) {
+            if (puzzle.backjumping != null) {
+                puzzle.backjumping.explainMissingValue(unit, dirty & ~(placed | once));
+            }
+            return false;
+        }
+
+        for (int hidden = once & ~twice & dirty; hidden != 0; hidden &= hidden - 1) {
+            int value = Puzzle.lowestValue(hidden);
+            int bit = Puzzle.bit(value);
+            for (int i = 0; i < size; i++) {
+                int cell = puzzle.unitCell(unit, i);
+                int row = cell / size;
+                int col = cell % size;
+                if (puzzle.isUnSet(row, col) && (puzzle.candidateMask(row, col) & bit) != 0) {
+                    if (puzzle.backjumping != null) {
+                        puzzle.backjumping.explainHiddenSingle(unit, cell, bit);
+                    }
+                    puzzle.set(row, col, value);
+                    if (puzzle.stats != null) {
+                        puzzle.stats.hiddenSingles++;
+                    }
+                    if (puzzle.trace != null) {
+                        puzzle.trace.placed(cell, value, SolveTrace.Step.HIDDEN_SINGLE);
+                    }
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void clear() {
+        while (cellCount > 0) {
+            cellQueued[cells[--cellCount]] = false;
+        }
+        while (unitCount > 0) {
+            unitDirty[units[--unitCount]] = 0;
+        }
+    }
+}
@@ -0,0 +1,737 @@
+package com.baber;
+
+import com.google.common.collect.Lists;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+class Puzzle {
+    /**
+     * the classic 9x9 grid
+     */
+    public static final int CELL_COUNT = 9;
+
+    /**
+     * the largest grid whose values still fit in an int mask
+     */
+    public static final int MAX_SIZE = 25;
+
+    /**
+     * the values per row, column and box, the grid is size x size and each box is boxSize x boxSize
+     */
+    final int size;
+    final int boxSize;
+
+    /**
+     * one bit per value, bit 0 is value 1
+     */
+    final int allValues;
+
+    /**
+     * hands out ids in order, only to the puzzles that are asked for one
+     */
+    private static final AtomicLong IDS = new AtomicLong();
+
+    /**
+     * zero until getId is first called, so forks never pay for an id they do not use
+     */
+    private long id;
+
+    /**
+     * the value of each cell row by row, 0 for blank, so a copy is a single arraycopy
+     */
+    byte[] cells;
+
+    Optional<String> error = Optional.empty();
+
+    /**
+     * occupancy masks of the values placed in each unit, numbered as in unitCell
+     */
+    int[] unitMasks;
+
+    /**
+     * candidates of each cell ruled out by the elimination techniques, on top of the values placed in its units
+     */
+    int[] eliminated;
+
+    /**
+     * how often each value is placed in each unit, indexed by unit * size + value - 1 with the units numbered as in
+     * unitCell, a byte is plenty for a count that can not pass the grid size
+     */
+    byte[] counts;
+
+    /**
+     * the unit and value pairs placed more than once, zero exactly when the grid is valid
+     */
+    int conflicts;
+
+    /**
+     * cells assigned since the trail was started, so a search can undo back to a mark, an elimination is recorded as
+     * the previous mask of the cell followed by the complement of the cell
+     */
+    int[] trail;
+    int trailSize;
+
+    /**
+     * the propagation work queue, created by the first propagate so puzzles that are only read and written skip it
+     */
+    Propagator propagator;
+
+    /**
+     * the counters of the solve this puzzle belongs to, shared with its forks, null outside a measured solve
+     */
+    SolveStats stats;
+
+    /**
+     * the listener for the steps of the solve, shared with its forks, null unless a trace is registered
+     */
+    SolveTrace trace;
+
+    /**
+     * how the searches split this puzzle and its forks, Branching.MRV when null
+     */
+    BranchStrategy branching;
+
+    /**
+     * the elimination techniques propagate applies after the singles, in order, none when null
+     */
+    Technique[] techniques;
+
+    /**
+     * told why each single is placed and why a dead end is one, only set on the working copy of a backjumping
+     * search and never copied
+     */
+    BackjumpingSearch backjumping;
+
+    /**
+     * polled by the searches between nodes, a search that sees it return true gives up and reports no solution
+     */
+    BooleanSupplier cancelled;
+
+    /**
+     * how many forks led to this puzzle
+     */
+    int depth;
+
+    /**
+     * an empty classic grid
+     */
+    Puzzle() {
+        this(CELL_COUNT, null);
+    }
+
+    /**
+     * the cells of the grid row by row, the size of the grid follows from how many there are
+     */
+    public Puzzle(int... values) {
+        this(sizeOf(values.length), values);
+    }
+
+    public Puzzle(int[][] values) {
+        this(values.length, null);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                set(row, col, values[row][col]);
+            }
+        }
+    }
+
+    public Puzzle(Puzzle other) {
+        this(other.size, null);
+        copyFrom(other);
+    }
+
+    private Puzzle(int size, int[] values) {
+        this.boxSize = boxSizeOf(size);
+        this.size = size;
+        this.allValues = (int) ((1L << size) - 1);
+        cells = new byte[size * size];
+        unitMasks = new int[3 * size];
+        eliminated = new int[size * size];
+        counts = new byte[3 * size * size];
+        if (values != null) {
+            for (int i = 0; i < values.length; i++) {
+                set(i, values[i]);
+            }
+        }
+    }
+
+    /**
+     * overwrite this puzzle with another of the same size, reusing the arrays already allocated, the trail restarts
+     * empty
+     */
+    void copyFrom(Puzzle other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Can not copy a " + other.size + " grid into a " + size + " grid");
+        }
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+        System.arraycopy(other.unitMasks, 0, unitMasks, 0, unitMasks.length);
+        System.arraycopy(other.eliminated, 0, eliminated, 0, eliminated.length);
+        System.arraycopy(other.counts, 0, counts, 0, counts.length);
+        conflicts = other.conflicts;
+        error = other.error;
+        if (other.propagator == null) {
+            propagator = null;
+        } else if (propagator == null) {
+            propagator = new Propagator(this, other.propagator);
+        } else {
+            propagator.copyFrom(other.propagator);
+        }
+        trailSize = 0;
+        stats = other.stats;
+        trace = other.trace;
+        cancelled = other.cancelled;
+        branching = other.branching;
+        techniques = other.techniques;
+        depth = other.depth;
+    }
+
+    /**
+     * a number unique to this puzzle within the run, given out the first time it is asked for
+     */
+    public long getId() {
+        if (id == 0) {
+            id = IDS.incrementAndGet();
+        }
+        return id;
+    }
+
+    /**
+     * an empty grid with the given number of values per row
+     */
+    public static Puzzle empty(int size) {
+        return new Puzzle(size, null);
+    }
+
+    /**
+     * the box width of a grid, only square boxes from 2x2 up to MAX_SIZE values are supported
+     */
+    static int boxSizeOf(int size) {
+        int boxSize = (int) Math.round(Math.sqrt(size));
+        if (boxSize < 2 || boxSize * boxSize != size || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported grid size " + size);
+        }
+        return boxSize;
+    }
+
+    /**
+     * the grid size for a number of cells
+     */
+    static int sizeOf(int cellCount) {
+        int size = (int) Math.round(Math.sqrt(cellCount));
+        if (size * size != cellCount) {
+            throw new IllegalArgumentException("Invalid input, " + cellCount + " cells is not a square grid");
+        }
+        boxSizeOf(size);
+        return size;
+    }
+
+    static boolean isCellCount(int cellCount) {
+        int size = (int) Math.round(Math.sqrt(cellCount));
+        int boxSize = (int) Math.round(Math.sqrt(size));
+        return size * size == cellCount && boxSize * boxSize == size && boxSize >= 2 && size <= MAX_SIZE;
+    }
+
+    /**
+     * the value of a character in the line format, 1-9 then A-P for 10-25, 0 or . for blank, -1 for anything else
+     */
+    static int valueOf(int ch) {
+        if (ch == '.' || ch == '0') {
+            return 0;
+        }
+        if (ch >= '1' && ch <= '9') {
+            return ch - '0';
+        }
+        if (ch >= 'A' && ch <= 'Z') {
+            return ch - 'A' + 10;
+        }
+        if (ch >= 'a' && ch <= 'z') {
+            return ch - 'a' + 10;
+        }
+        return -1;
+    }
+
+    static char charOf(int value) {
+        return value < 10 ? (char) ('0' + value) : (char) ('A' + value - 10);
+    }
+
+    /**
+     * parse a puzzle written on one line, digits then letters for the values and 0 or . for blanks
+     */
+    public static Puzzle parse(CharSequence line) {
+        if (!isCellCount(line.length())) {
+            throw new IllegalArgumentException("Unsupported puzzle of " + line.length() + " cells");
+        }
+        Puzzle puzzle = empty(sizeOf(line.length()));
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            int value = valueOf(ch);
+            if (value < 0 || value > puzzle.size) {
+                throw new IllegalArgumentException("Unexpected character '" + ch + "' at cell " + (i + 1));
+            }
+            if (value != 0) {
+                puzzle.set(i, value);
+            }
+        }
+        return puzzle;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCellCount() {
+        return size * size;
+    }
+
+    static int bit(int value) {
+        return 1 << (value - 1);
+    }
+
+    static int lowestValue(int mask) {
+        return Integer.numberOfTrailingZeros(mask) + 1;
+    }
+
+    int box(int row, int col) {
+        return (row / boxSize) * boxSize + col / boxSize;
+    }
+
+    public void set(int i, int value) {
+        int x = i / size;
+        int y = i % size;
+        set(x, y, value);
+    }
+
+    public void set(int row, int col, int value) {
+        int previous = cells[row * size + col];
+        cells[row * size + col] = (byte) value;
+        if (trail != null && previous == 0 && value != 0) {
+            record(row * size + col);
+        }
+        if (previous != 0) {
+            remove(row, col, previous);
+        }
+        if (value != 0) {
+            place(row, col, value);
+        }
+        if (propagator != null) {
+            if (previous != 0) {
+                propagator.cleared(row, col);
+            }
+            if (value != 0) {
+                propagator.assigned(row, col, value);
+            }
+        }
+    }
+
+    /**
+     * start recording assignments so they can be rolled back with undo
+     */
+    public void startTrail() {
+        if (trail == null) {
+            trail = new int[size * size];
+        }
+        trailSize = 0;
+    }
+
+    private void record(int entry) {
+        if (trailSize == trail.length) {
+            trail = Arrays.copyOf(trail, 2 * trail.length);
+        }
+        trail[trailSize++] = entry;
+    }
+
+    /**
+     * rule the values in bits out of the cell, false when none of them were still candidates
+     */
+    boolean eliminate(int cell, int bits) {
+        int row = cell / size;
+        int col = cell % size;
+        bits &= candidateMask(row, col);
+        if (bits == 0 || cells[cell] != 0) {
+            return false;
+        }
+        if (trail != null) {
+            record(eliminated[cell]);
+            record(~cell);
+        }
+        eliminated[cell] |= bits;
+        if (propagator != null) {
+            propagator.eliminated(row, col, bits);
+        }
+        return true;
+    }
+
+    public int trailMark() {
+        return trailSize;
+    }
+
+    /**
+     * unset every cell assigned after the mark
+     */
+    public void undo(int mark) {
+        while (trailSize > mark) {
+            int cell = trail[--trailSize];
+            if (cell < 0) {
+                eliminated[~cell] = trail[--trailSize];
+            } else if (cells[cell] != 0) {
+                remove(cell / size, cell % size, cells[cell]);
+                cells[cell] = 0;
+            }
+        }
+    }
+
+    /**
+     * count the value into the units of the cell, a unit only gets the bit in its mask for the first copy
+     */
+    private void place(int row, int col, int value) {
+        int bit = bit(value);
+        int box = box(row, col);
+        if (countIn(row, value)) {
+            unitMasks[row] |= bit;
+        }
+        if (countIn(size + col, value)) {
+            unitMasks[size + col] |= bit;
+        }
+        if (countIn(2 * size + box, value)) {
+            unitMasks[2 * size + box] |= bit;
+        }
+    }
+
+    /**
+     * take the value out of the units of the cell, the bit stays in a mask while another copy is still placed there
+     */
+    private void remove(int row, int col, int value) {
+        int bit = bit(value);
+        int box = box(row, col);
+        if (countOut(row, value)) {
+            unitMasks[row] &= ~bit;
+        }
+        if (countOut(size + col, value)) {
+            unitMasks[size + col] &= ~bit;
+        }
+        if (countOut(2 * size + box, value)) {
+            unitMasks[2 * size + box] &= ~bit;
+        }
+    }
+
+    /**
+     * true when this is the only copy of the value in the unit
+     */
+    private boolean countIn(int unit, int value) {
+        int count = ++counts[unit * size + value - 1];
+        if (count == 2) {
+            conflicts++;
+        }
+        return count == 1;
+    }
+
+    /**
+     * true when the last copy of the value left the unit
+     */
+    private boolean countOut(int unit, int value) {
+        int count = --counts[unit * size + value - 1];
+        if (count == 1) {
+            conflicts--;
+        }
+        return count == 0;
+    }
+
+    public boolean isSet(int row, int col) {
+        return cells[row * size + col] != 0;
+    }
+
+    public boolean isUnSet(int row, int col) {
+        return !isSet(row, col);
+    }
+
+    public int get(int i) {
+        return cells[i];
+    }
+
+    public int get(int row, int col) {
+        return cells[row * size + col];
+    }
+
+    /**
+     * the values as a fresh grid indexed by row then column
+     */
+    public int[][] toGrid() {
+        int[][] grid = new int[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                grid[row][col] = cells[row * size + col];
+            }
+        }
+        return grid;
+    }
+
+    public List<Integer> colValues(int col) {
+        List<Integer> colValues = Lists.newArrayList();
+        for (int row = 0; row < size; row++) {
+            colValues.add(get(row, col));
+        }
+        return colValues;
+    }
+
+    public List<Integer> rowValues(int row) {
+        List<Integer> rowValues = Lists.newArrayList();
+        for (int col = 0; col < size; col++) {
+            rowValues.add(get(row, col));
+        }
+        return rowValues;
+    }
+
+    public List<Integer> boxValues(int row, int col) {
+        List<Integer> box = Lists.newArrayList();
+        int baseRow = (row / boxSize) * boxSize;
+        int baseCol = (col / boxSize) * boxSize;
+        for (int i = baseRow; i < baseRow + boxSize; i++) {
+            for (int j = baseCol; j < baseCol + boxSize; j++) {
+                box.add(get(i, j));
+            }
+        }
+        return box;
+    }
+
+    /**
+     * the values not yet used by the row, column or box of the cell as a bit mask
+     */
+    public int candidateMask(int row, int col) {
+        return allValues & ~(unitMasks[row] | unitMasks[size + col] | unitMasks[2 * size + box(row, col)]
+                | eliminated[row * size + col]);
+    }
+
+    public int candidateCount(int row, int col) {
+        return Integer.bitCount(candidateMask(row, col));
+    }
+
+    public List<Integer> candidates(int row, int col) {
+        List<Integer> candidateList = Lists.newArrayList();
+        for (int mask = candidateMask(row, col); mask != 0; mask &= mask - 1) {
+            candidateList.add(lowestValue(mask));
+        }
+        return candidateList;
+    }
+
+    /**
+     * the i-th cell of a unit, units 0..size-1 are the rows, then the columns, then the boxes
+     */
+    int unitCell(int unit, int i) {
+        int index = unit % size;
+        switch (unit / size) {
+            case 0:
+                return index * size + i;
+            case 1:
+                return i * size + index;
+            default:
+                int row = (index / boxSize) * boxSize + i / boxSize;
+                int col = (index % boxSize) * boxSize + i % boxSize;
+                return row * size + col;
+        }
+    }
+
+    /**
+     * place every naked and hidden single that follows from the cells set since the last call, false when the
+     * grid turned out to be a dead end, the first call looks at every cell, then run the elimination techniques
+     * attached to the puzzle until neither they nor the singles make progress
+     */
+    public boolean propagate() {
+        if (propagator == null) {
+            propagator = new Propagator(this);
+        }
+        if (!propagator.run()) {
+            return false;
+        }
+        return techniques == null || Technique.apply(this, techniques);
+    }
+
+    /**
+     * true when no value is placed twice in a row, column or box, otherwise error names the first cell in conflict
+     */
+    public boolean isValid() {
+        if (conflicts == 0) {
+            error = Optional.empty();
+            return true;
+        }
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (isConflict(row, col)) {
+                    error = Optional.of("Puzzle has errors at cell row " + (row + 1) + " x col " + (col + 1));
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * whether the value in the cell is also placed elsewhere in its row, column or box
+     */
+    public boolean isConflict(int row, int col) {
+        int value = cells[row * size + col];
+        if (value == 0 || conflicts == 0) {
+            return false;
+        }
+        return counts[row * size + value - 1] > 1
+                || counts[(size + col) * size + value - 1] > 1
+                || counts[(2 * size + box(row, col)) * size + value - 1] > 1;
+    }
+
+    /**
+     * the cells, as row * size + col, whose value clashes with another in the same row, column or box
+     */
+    public Set<Integer> conflictCells() {
+        Set<Integer> cells = new TreeSet<>();
+        for (int row = 0; row < size && conflicts > 0; row++) {
+            for (int col = 0; col < size; col++) {
+                if (isConflict(row, col)) {
+                    cells.add(row * size + col);
+                }
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * false when a cell has no candidates left or a row, column or box has nowhere left to put one of its values
+     */
+    public boolean isSolvable() {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (isUnSet(row, col) && candidateMask(row, col) == 0) {
+                    return false;
+                }
+            }
+        }
+        for (int unit = 0; unit < 3 * size; unit++) {
+            int covered = 0;
+            for (int i = 0; i < size; i++) {
+                int cell = unitCell(unit, i);
+                int row = cell / size;
+                int col = cell % size;
+                covered |= isSet(row, col) ? bit(cells[cell]) : candidateMask(row, col);
+            }
+            if (covered != allValues) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * the values on a single line, the format read by parse
+     */
+    public String toLine() {
+        StringBuilder str = new StringBuilder(size * size);
+        for (byte value : cells) {
+            str.append(charOf(value));
+        }
+        return str.toString();
+    }
+
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        str.append("Puzzle " + getId() + "\n");
+        for (int row = 0; row < size; row++) {
+            if (row > 0) {
+                str.append("\n");
+            }
+            if (row % boxSize == 0) {
+                str.append("\n");
+            }
+
+            for (int col = 0; col < size; col++) {
+                if (col > 0) {
+                    str.append(" ");
+                }
+                if (col % boxSize == 0) {
+                    str.append(" ");
+                }
+                str.append(charOf(cells[row * size + col]));
+            }
+        }
+        return str.toString();
+    }
+
+    /**
+     * the unset cell with the fewest candidates, or -1 when every cell is set
+     */
+    public int bestCell() {
+        int bestCell = -1;
+        int minCandidateSize = size + 1;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (isUnSet(row, col)) {
+                    int candidateSize = candidateCount(row, col);
+                    if (candidateSize < minCandidateSize) {
+                        bestCell = row * size + col;
+                        minCandidateSize = candidateSize;
+                    }
+                }
+            }
+        }
+        return bestCell;
+    }
+
+    BranchStrategy getBranching() {
+        return branching == null ? Branching.MRV : branching;
+    }
+
+    /**
+     * a copy for each candidate of the cell the branching strategy picks, in the order it wants them tried
+     */
+    public List<Puzzle> fork() {
+        List<Puzzle> forks = Lists.newArrayList();
+        BranchStrategy strategy = getBranching();
+        int bestCell = strategy.selectCell(this);
+        if (bestCell < 0) {
+            return forks;
+        }
+
+        int[] order = new int[size];
+        int count = strategy.orderValues(this, bestCell, order);
+        for (int i = 0; i < count; i++) {
+            Puzzle fork = new Puzzle(this);
+            fork.set(bestCell, order[i]);
+            fork.depth = depth + 1;
+            forks.add(fork);
+        }
+        if (stats != null) {
+            stats.forks += forks.size();
+        }
+        if (trace != null) {
+            trace.forked(bestCell, forks.size(), depth);
+        }
+        ForkEvent.emit(bestCell, forks.size(), depth);
+        return forks;
+    }
+
+    public boolean isCancelled() {
+        return cancelled != null && cancelled.getAsBoolean();
+    }
+
+    public int getUnsetCount() {
+        int unset = 0;
+        for (byte value : cells) {
+            if (value == 0) {
+                unset++;
+            }
+        }
+        return unset;
+    }
+
+    public boolean isSolved() {
+        for (byte value : cells) {
+            if (value == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
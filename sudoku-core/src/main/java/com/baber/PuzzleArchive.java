@@ -0,0 +1,210 @@
+package com.baber;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * packed binary puzzles, an 8 byte header of the magic SDK, the format version, the grid size and three reserved
+ * bytes, then one fixed length record per puzzle holding every cell in as few bits as its values need, 4 bits and
+ * 41 bytes a puzzle for the classic grid
+ *
+ * the fixed stride is the index: puzzle i starts at HEADER_LENGTH + i * stride and the count follows from the file
+ * length, so any puzzle can be read without touching the others, a single saved puzzle is an archive of one
+ */
+class PuzzleArchive implements Closeable {
+    static final byte[] MAGIC = {'S', 'D', 'K'};
+
+    static final int VERSION = 1;
+
+    static final int HEADER_LENGTH = 8;
+
+    /**
+     * bytes per mapping, a mapping is indexed by int so each one stays within about a gigabyte
+     */
+    private static final long MAX_SEGMENT = 1L << 30;
+
+    private final FileChannel channel;
+
+    private final int gridSize;
+
+    private final int stride;
+
+    private final int count;
+
+    private final int recordsPerSegment;
+
+    private final MappedByteBuffer[] segments;
+
+    PuzzleArchive(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is full or the file ends
+            }
+            if (header.hasRemaining() || !hasMagic(header.array())) {
+                throw new IOException("Not a puzzle archive " + path);
+            }
+            if (header.get(3) != VERSION) {
+                throw new IOException("Unsupported puzzle archive version " + header.get(3) + " in " + path);
+            }
+            gridSize = header.get(4);
+            if (!Puzzle.isCellCount(gridSize * gridSize)) {
+                throw new IOException("Unsupported grid size " + gridSize + " in " + path);
+            }
+            stride = recordLength(gridSize);
+            long records = (channel.size() - HEADER_LENGTH) / stride;
+            if (records > Integer.MAX_VALUE) {
+                throw new IOException("Too many puzzles in " + path);
+            }
+            count = (int) records;
+            recordsPerSegment = (int) (MAX_SEGMENT / stride);
+            segments = new MappedByteBuffer[(count + recordsPerSegment - 1) / recordsPerSegment];
+        } catch (IOException exc) {
+            channel.close();
+            throw exc;
+        }
+    }
+
+    /**
+     * whether the bytes start with the archive magic, enough to tell an archive from the text formats
+     */
+    static boolean hasMagic(byte[] head) {
+        return head.length >= MAGIC.length && head[0] == MAGIC[0] && head[1] == MAGIC[1] && head[2] == MAGIC[2];
+    }
+
+    static boolean isArchive(Path path) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(MAGIC.length);
+            file.read(head);
+            return hasMagic(head.array());
+        }
+    }
+
+    /**
+     * the first puzzle of an archive, or of a legacy sudoku.sav or line format file
+     */
+    static Puzzle load(Path path) throws IOException {
+        if (isArchive(path)) {
+            try (PuzzleArchive archive = new PuzzleArchive(path)) {
+                if (archive.size() == 0) {
+                    throw new IOException("Empty puzzle archive " + path);
+                }
+                return archive.get(0);
+            }
+        }
+        try (CorpusReader corpus = new CorpusReader(path)) {
+            List<CorpusReader.Chunk> chunks = corpus.chunks();
+            Puzzle puzzle = chunks.isEmpty() ? null : chunks.get(0).read();
+            if (puzzle == null) {
+                throw new IOException("No puzzle in " + path);
+            }
+            return puzzle;
+        }
+    }
+
+    static int bitsPerCell(int gridSize) {
+        return 32 - Integer.numberOfLeadingZeros(gridSize);
+    }
+
+    static int recordLength(int gridSize) {
+        return (gridSize * gridSize * bitsPerCell(gridSize) + 7) / 8;
+    }
+
+    static byte[] header(int gridSize) {
+        byte[] header = new byte[HEADER_LENGTH];
+        System.arraycopy(MAGIC, 0, header, 0, MAGIC.length);
+        header[3] = VERSION;
+        header[4] = (byte) gridSize;
+        return header;
+    }
+
+    /**
+     * write the cells of the puzzle into the record, most significant bits first
+     */
+    static void pack(Puzzle puzzle, byte[] record) {
+        int bits = bitsPerCell(puzzle.size);
+        long pending = 0;
+        int pendingBits = 0;
+        int pos = 0;
+        for (int cell = 0; cell < puzzle.getCellCount(); cell++) {
+            pending = (pending << bits) | puzzle.get(cell);
+            pendingBits += bits;
+            while (pendingBits >= 8) {
+                record[pos++] = (byte) (pending >>> (pendingBits - 8));
+                pendingBits -= 8;
+            }
+        }
+        if (pendingBits > 0) {
+            record[pos] = (byte) (pending << (8 - pendingBits));
+        }
+    }
+
+    /**
+     * read a record back into a puzzle, a value out of range comes back with the error set
+     */
+    static Puzzle unpack(ByteBuffer buffer, int offset, int gridSize) {
+        int bits = bitsPerCell(gridSize);
+        int mask = (1 << bits) - 1;
+        Puzzle puzzle = Puzzle.empty(gridSize);
+        long pending = 0;
+        int pendingBits = 0;
+        int pos = offset;
+        for (int cell = 0; cell < puzzle.getCellCount(); cell++) {
+            while (pendingBits < bits) {
+                pending = (pending << 8) | (buffer.get(pos++) & 0xFF);
+                pendingBits += 8;
+            }
+            int value = (int) (pending >>> (pendingBits - bits)) & mask;
+            pendingBits -= bits;
+            if (value > gridSize) {
+                puzzle.error = Optional.of("Invalid puzzle record, value " + value + " at cell " + (cell + 1));
+            } else if (value != 0) {
+                puzzle.set(cell, value);
+            }
+        }
+        return puzzle;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    /**
+     * the number of puzzles in the archive
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * the puzzle at the index, mapping the segment that holds it on first use, safe to call from several threads
+     */
+    public Puzzle get(int index) throws IOException {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Puzzle " + index + " of " + count);
+        }
+        return unpack(segment(index / recordsPerSegment), (index % recordsPerSegment) * stride, gridSize);
+    }
+
+    private synchronized MappedByteBuffer segment(int segment) throws IOException {
+        if (segments[segment] == null) {
+            long start = HEADER_LENGTH + (long) segment * recordsPerSegment * stride;
+            int records = Math.min(recordsPerSegment, count - segment * recordsPerSegment);
+            segments[segment] = channel.map(FileChannel.MapMode.READ_ONLY, start, (long) records * stride);
+        }
+        return segments[segment];
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
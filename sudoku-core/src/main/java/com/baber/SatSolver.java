@@ -0,0 +1,460 @@
+package com.baber;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * a conflict driven clause learning SAT solver, two watched literals per clause, VSIDS variable activity with saved
+ * phases, first UIP learning, Luby restarts and a learned clause database cut in half whenever it outgrows its limit
+ *
+ * variables are numbered from 0, a literal is 2 * variable for the variable being true and 2 * variable + 1 for it
+ * being false, so negating a literal flips the low bit
+ */
+class SatSolver {
+    /**
+     * conflicts per unit of the Luby sequence between restarts
+     */
+    static final int RESTART_UNIT = 64;
+
+    /**
+     * learned clauses kept before the first reduction, the limit grows by a tenth with each reduction
+     */
+    static final int FIRST_LEARNED_LIMIT = 2000;
+
+    /**
+     * learned clauses whose literals span at most this many decision levels are never deleted
+     */
+    static final int GLUE = 2;
+
+    private static final double VARIABLE_DECAY = 0.95;
+    private static final double CLAUSE_DECAY = 0.999;
+
+    private final int variables;
+
+    /**
+     * 1 true, -1 false, 0 unassigned, per variable
+     */
+    private final byte[] values;
+
+    /**
+     * the phase a variable had when last unassigned, tried first when it is next decided
+     */
+    private final boolean[] phases;
+
+    private final int[] levels;
+
+    /**
+     * the clause that implied each assigned variable, -1 for decisions
+     */
+    private final int[] reasons;
+
+    private final int[] trail;
+    private int trailSize;
+    private int propagated;
+
+    /**
+     * where each decision level starts on the trail
+     */
+    private final int[] levelStarts;
+    private int level;
+
+    private int[][] clauses = new int[1024][];
+    private boolean[] learned = new boolean[1024];
+    private int[] glue = new int[1024];
+    private double[] clauseActivity = new double[1024];
+    private int clauseCount;
+    private int learnedCount;
+    private int learnedLimit = FIRST_LEARNED_LIMIT;
+    private double clauseIncrement = 1;
+
+    /**
+     * per literal the clauses watching it, a clause watches its first two literals
+     */
+    private final int[][] watches;
+    private final int[] watchCounts;
+
+    private final double[] activity;
+    private double activityIncrement = 1;
+
+    /**
+     * set when a clause added at level 0 could not be satisfied
+     */
+    private boolean unsatisfiable;
+
+    private final boolean[] seen;
+    private final int[] learning;
+    private final boolean[] levelSeen;
+
+    long decisions;
+    long conflicts;
+    long propagations;
+    long restarts;
+    long learnedClauses;
+    long deletedClauses;
+    int maxLevel;
+
+    SatSolver(int variables) {
+        this.variables = variables;
+        values = new byte[variables];
+        phases = new boolean[variables];
+        levels = new int[variables];
+        reasons = new int[variables];
+        trail = new int[variables];
+        levelStarts = new int[variables + 1];
+        watches = new int[2 * variables][];
+        watchCounts = new int[2 * variables];
+        activity = new double[variables];
+        seen = new boolean[variables];
+        learning = new int[variables];
+        levelSeen = new boolean[variables + 1];
+    }
+
+    static int literal(int variable, boolean value) {
+        return 2 * variable + (value ? 0 : 1);
+    }
+
+    /**
+     * true when the variable is true in the model found by the last solve
+     */
+    boolean isTrue(int variable) {
+        return values[variable] > 0;
+    }
+
+    /**
+     * add a clause before solving, duplicate literals and clauses holding a literal and its negation are fine
+     */
+    void addClause(int... literals) {
+        if (unsatisfiable) {
+            return;
+        }
+        int[] clause = literals.clone();
+        Arrays.sort(clause);
+        int length = 0;
+        for (int i = 0; i < clause.length; i++) {
+            int literal = clause[i];
+            if (i > 0 && literal == clause[i - 1]) {
+                continue;
+            }
+            if (i > 0 && literal == (clause[i - 1] ^ 1) || value(literal) > 0) {
+                return;
+            }
+            if (value(literal) == 0) {
+                clause[length++] = literal;
+            }
+        }
+        if (length == 0) {
+            unsatisfiable = true;
+        } else if (length == 1) {
+            assign(clause[0], -1);
+            unsatisfiable = propagate() >= 0;
+        } else {
+            attach(Arrays.copyOf(clause, length), false, 0);
+        }
+    }
+
+    /**
+     * search for a model, false when there is none or the search was cancelled
+     */
+    boolean solve(BooleanSupplier cancelled) {
+        if (unsatisfiable) {
+            return false;
+        }
+        long conflictsLeft = RESTART_UNIT * Branching.luby(1);
+        while (true) {
+            int conflict = propagate();
+            if (conflict >= 0) {
+                conflicts++;
+                if (level == 0) {
+                    return false;
+                }
+                learn(conflict);
+                activityIncrement /= VARIABLE_DECAY;
+                clauseIncrement /= CLAUSE_DECAY;
+                if (--conflictsLeft <= 0) {
+                    restarts++;
+                    backtrack(0);
+                    if (learnedCount > learnedLimit) {
+                        reduce();
+                    }
+                    conflictsLeft = RESTART_UNIT * Branching.luby((int) restarts + 1);
+                }
+                if ((conflicts & 255) == 0 && cancelled.getAsBoolean()) {
+                    return false;
+                }
+            } else {
+                int variable = pick();
+                if (variable < 0) {
+                    return true;
+                }
+                decisions++;
+                levelStarts[level++] = trailSize;
+                maxLevel = Math.max(maxLevel, level);
+                assign(literal(variable, phases[variable]), -1);
+            }
+        }
+    }
+
+    private int value(int literal) {
+        int value = values[literal >> 1];
+        return (literal & 1) == 0 ? value : -value;
+    }
+
+    private void assign(int literal, int reason) {
+        int variable = literal >> 1;
+        values[variable] = (byte) ((literal & 1) == 0 ? 1 : -1);
+        levels[variable] = level;
+        reasons[variable] = reason;
+        trail[trailSize++] = literal;
+    }
+
+    private void backtrack(int target) {
+        if (level <= target) {
+            return;
+        }
+        for (int i = trailSize - 1; i >= levelStarts[target]; i--) {
+            int variable = trail[i] >> 1;
+            phases[variable] = values[variable] > 0;
+            values[variable] = 0;
+        }
+        trailSize = levelStarts[target];
+        propagated = trailSize;
+        level = target;
+    }
+
+    /**
+     * the unassigned variable with the highest activity, -1 when every variable is assigned
+     */
+    private int pick() {
+        int best = -1;
+        for (int variable = 0; variable < variables; variable++) {
+            if (values[variable] == 0 && (best < 0 || activity[variable] > activity[best])) {
+                best = variable;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * assign what the clauses imply, the clause that became false on a conflict or -1
+     */
+    private int propagate() {
+        while (propagated < trailSize) {
+            int falsified = trail[propagated++] ^ 1;
+            int[] watching = watches[falsified];
+            int count = watchCounts[falsified];
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                int index = watching[i];
+                int[] clause = clauses[index];
+                if (clause[0] == falsified) {
+                    clause[0] = clause[1];
+                    clause[1] = falsified;
+                }
+                if (value(clause[0]) > 0) {
+                    watching[kept++] = index;
+                    continue;
+                }
+                int replacement = 2;
+                while (replacement < clause.length && value(clause[replacement]) < 0) {
+                    replacement++;
+                }
+                if (replacement < clause.length) {
+                    clause[1] = clause[replacement];
+                    clause[replacement] = falsified;
+                    watch(clause[1], index);
+                    continue;
+                }
+                watching[kept++] = index;
+                if (value(clause[0]) < 0) {
+                    // keep the watches not visited yet and report the conflict
+                    while (++i < count) {
+                        watching[kept++] = watching[i];
+                    }
+                    watchCounts[falsified] = kept;
+                    propagated = trailSize;
+                    return index;
+                }
+                assign(clause[0], index);
+                propagations++;
+            }
+            watchCounts[falsified] = kept;
+        }
+        return -1;
+    }
+
+    /**
+     * learn the first UIP clause of the conflict, backjump to the level where it becomes unit and assign its literal
+     */
+    private void learn(int conflict) {
+        int length = 1;
+        int pending = 0;
+        int uip = -1;
+        int index = trailSize - 1;
+        int[] clause = clauses[conflict];
+        while (true) {
+            bumpClause(conflict);
+            for (int j = uip < 0 ? 0 : 1; j < clause.length; j++) {
+                int variable = clause[j] >> 1;
+                if (!seen[variable] && levels[variable] > 0) {
+                    seen[variable] = true;
+                    bumpVariable(variable);
+                    if (levels[variable] == level) {
+                        pending++;
+                    } else {
+                        learning[length++] = clause[j];
+                    }
+                }
+            }
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            uip = trail[index--];
+            seen[uip >> 1] = false;
+            if (--pending == 0) {
+                break;
+            }
+            conflict = reasons[uip >> 1];
+            clause = clauses[conflict];
+        }
+        learning[0] = uip ^ 1;
+
+        int target = 0;
+        int second = 1;
+        for (int j = 1; j < length; j++) {
+            seen[learning[j] >> 1] = false;
+            if (levels[learning[j] >> 1] > target) {
+                target = levels[learning[j] >> 1];
+                second = j;
+            }
+        }
+        backtrack(target);
+        if (length == 1) {
+            assign(learning[0], -1);
+            return;
+        }
+        int[] learnt = Arrays.copyOf(learning, length);
+        learnt[1] = learning[second];
+        learnt[second] = learning[1];
+        int added = attach(learnt, true, glueOf(learnt));
+        bumpClause(added);
+        assign(learnt[0], added);
+        learnedClauses++;
+    }
+
+    /**
+     * the number of distinct decision levels among the literals, low for clauses that tie few decisions together
+     */
+    private int glueOf(int[] clause) {
+        int distinct = 0;
+        for (int literal : clause) {
+            int at = levels[literal >> 1];
+            if (!levelSeen[at]) {
+                levelSeen[at] = true;
+                distinct++;
+            }
+        }
+        for (int literal : clause) {
+            levelSeen[levels[literal >> 1]] = false;
+        }
+        return distinct;
+    }
+
+    private int attach(int[] clause, boolean isLearned, int clauseGlue) {
+        if (clauseCount == clauses.length) {
+            int capacity = 2 * clauses.length;
+            clauses = Arrays.copyOf(clauses, capacity);
+            learned = Arrays.copyOf(learned, capacity);
+            glue = Arrays.copyOf(glue, capacity);
+            clauseActivity = Arrays.copyOf(clauseActivity, capacity);
+        }
+        int index = clauseCount++;
+        clauses[index] = clause;
+        learned[index] = isLearned;
+        glue[index] = clauseGlue;
+        clauseActivity[index] = 0;
+        if (isLearned) {
+            learnedCount++;
+        }
+        watch(clause[0], index);
+        watch(clause[1], index);
+        return index;
+    }
+
+    private void watch(int literal, int index) {
+        int[] watching = watches[literal];
+        if (watching == null) {
+            watching = new int[4];
+        } else if (watchCounts[literal] == watching.length) {
+            watching = Arrays.copyOf(watching, 2 * watching.length);
+        }
+        watching[watchCounts[literal]++] = index;
+        watches[literal] = watching;
+    }
+
+    private void bumpVariable(int variable) {
+        activity[variable] += activityIncrement;
+        if (activity[variable] > 1e100) {
+            for (int i = 0; i < variables; i++) {
+                activity[i] *= 1e-100;
+            }
+            activityIncrement *= 1e-100;
+        }
+    }
+
+    private void bumpClause(int index) {
+        if (!learned[index]) {
+            return;
+        }
+        clauseActivity[index] += clauseIncrement;
+        if (clauseActivity[index] > 1e20) {
+            for (int i = 0; i < clauseCount; i++) {
+                clauseActivity[i] *= 1e-20;
+            }
+            clauseIncrement *= 1e-20;
+        }
+    }
+
+    /**
+     * drop the less active half of the learned clauses that are not glue, only called at level 0 where no clause
+     * is the reason for an assignment that analysis could still look at, then compact the clauses and rebuild the
+     * watches
+     */
+    private void reduce() {
+        double[] ranked = new double[learnedCount];
+        int count = 0;
+        for (int i = 0; i < clauseCount; i++) {
+            if (learned[i] && glue[i] > GLUE) {
+                ranked[count++] = clauseActivity[i];
+            }
+        }
+        Arrays.sort(ranked, 0, count);
+        double threshold = count > 0 ? ranked[count / 2] : 0;
+        int deleted = 0;
+        int kept = 0;
+        for (int i = 0; i < clauseCount; i++) {
+            if (learned[i] && glue[i] > GLUE && clauseActivity[i] < threshold) {
+                deleted++;
+                continue;
+            }
+            clauses[kept] = clauses[i];
+            learned[kept] = learned[i];
+            glue[kept] = glue[i];
+            clauseActivity[kept] = clauseActivity[i];
+            kept++;
+        }
+        Arrays.fill(clauses, kept, clauseCount, null);
+        clauseCount = kept;
+        learnedCount -= deleted;
+        deletedClauses += deleted;
+        learnedLimit += learnedLimit / 10;
+
+        Arrays.fill(watchCounts, 0);
+        for (int i = 0; i < clauseCount; i++) {
+            watch(clauses[i][0], i);
+            watch(clauses[i][1], i);
+        }
+        for (int i = 0; i < trailSize; i++) {
+            reasons[trail[i] >> 1] = -1;
+        }
+    }
+}
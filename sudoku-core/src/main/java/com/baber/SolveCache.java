@@ -0,0 +1,106 @@
+package com.baber;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * solves each class of isomorphic puzzles once, the wrapped solver is handed the canonical form of a puzzle and its
+ * answer is kept under that form, any relabelled, transposed or permuted variant then gets the cached answer mapped
+ * back through its own transform
+ *
+ * the least recently used forms are evicted past the maximum size, puzzles without a canonical form are passed
+ * straight through
+ */
+class SolveCache implements Solver {
+    private final Solver solver;
+
+    /**
+     * the canonical solution line, empty when the canonical puzzle has no solution
+     */
+    private final Cache<String, Optional<String>> solutions;
+
+    private final LongAdder bypassed = new LongAdder();
+
+    SolveCache(Solver solver, long maximumSize) {
+        this.solver = solver;
+        this.solutions = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "cached " + solver.name();
+    }
+
+    @Override
+    public Puzzle solve(Puzzle puzzle) {
+        CanonicalForm form = CanonicalForm.of(puzzle);
+        if (form == null) {
+            bypassed.increment();
+            return solver.solve(puzzle);
+        }
+
+        Optional<String> solution = null;
+        while (solution == null) {
+            try {
+                solution = solutions.get(form.key, () -> load(form, puzzle));
+            } catch (UncheckedExecutionException exc) {
+                if (!(exc.getCause() instanceof CancellationException)) {
+                    throw new IllegalStateException("Solver failed", exc.getCause());
+                }
+                // the load this call waited on was cancelled by its own caller, only give up when this one is too
+                if (puzzle.isCancelled()) {
+                    return null;
+                }
+            } catch (ExecutionException exc) {
+                throw new IllegalStateException("Solver failed", exc.getCause());
+            }
+        }
+        return solution.map(line -> form.restore(Puzzle.parse(line))).orElse(null);
+    }
+
+    /**
+     * solve the canonical form with the hooks of the caller that got to load it
+     */
+    private Optional<String> load(CanonicalForm form, Puzzle puzzle) {
+        Puzzle canonical = form.canonical();
+        canonical.stats = puzzle.stats;
+        canonical.trace = puzzle.trace;
+        canonical.cancelled = puzzle.cancelled;
+        canonical.branching = puzzle.branching;
+        canonical.techniques = puzzle.techniques;
+        Puzzle solved = solver.solve(canonical);
+        if (solved == null && canonical.isCancelled()) {
+            // a search that gave up has not shown the puzzle unsolvable, so keep it out of the cache
+            throw new CancellationException();
+        }
+        return Optional.ofNullable(solved).map(Puzzle::toLine);
+    }
+
+    public long hitCount() {
+        return solutions.stats().hitCount();
+    }
+
+    public long missCount() {
+        return solutions.stats().missCount();
+    }
+
+    /**
+     * puzzles solved without the cache, too large or too symmetric for a canonical form
+     */
+    public long bypassCount() {
+        return bypassed.sum();
+    }
+
+    public long size() {
+        return solutions.size();
+    }
+}
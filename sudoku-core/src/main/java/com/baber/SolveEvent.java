@@ -0,0 +1,43 @@
+package com.baber;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * flight recorder event spanning one solve, its start time and duration mark where the solve began and ended
+ */
+@Name("com.baber.Solve")
+@Label("Sudoku Solve")
+@Category("Sudoku")
+@Description("A solve from start to finish with its search counters")
+@StackTrace(false)
+class SolveEvent extends Event {
+    @Label("Engine")
+    String engine;
+
+    @Label("Clues")
+    int clues;
+
+    @Label("Solved")
+    boolean solved;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Forks")
+    long forks;
+
+    @Label("Dead Ends")
+    long deadEnds;
+
+    @Label("Puzzle")
+    String puzzle;
+
+    @Label("Winner")
+    @Description("The configuration that answered first when a portfolio raced several")
+    String winner;
+}
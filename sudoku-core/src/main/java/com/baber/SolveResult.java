@@ -0,0 +1,12 @@
+package com.baber;
+
+import lombok.Value;
+
+/**
+ * the solution, or null when there is none, with the statistics of the solve that produced it
+ */
+@Value
+public class SolveResult {
+    Puzzle solution;
+    SolveStats stats;
+}
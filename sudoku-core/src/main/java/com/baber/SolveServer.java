@@ -0,0 +1,295 @@
+package com.baber;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * local solve service on the JDK http server, POST /solve takes one puzzle per line and answers with one status and
+ * grid per line in the batch mode format, GET /stats reports the request counts and latencies, and with the
+ * portfolio engine how many puzzles each configuration won
+ *
+ * at most queue capacity puzzles are admitted at a time, a request that does not fit is turned away with a 503 so a
+ * burst cannot pile up unbounded work, the admitted puzzles are solved on a pool of one thread per core, and each
+ * response carries its latency in a Server-Timing header
+ */
+@Slf4j
+class SolveServer implements Closeable {
+    static final String USAGE = "usage: serve [--port n] [--engine " + Arrays.toString(Engine.values()) + "] [--queue n] [--timeout seconds]";
+
+    static final int DEFAULT_PORT = 8090;
+
+    static final int DEFAULT_QUEUE = 1024;
+
+    static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpServer server;
+
+    private final ExecutorService handlers;
+
+    /**
+     * the threads that solve, one per core, the queue bounds how many puzzles wait for them
+     */
+    private final ExecutorService solvers;
+
+    private final Solver solver;
+
+    private final Duration timeout;
+
+    private final int capacity;
+
+    /**
+     * one permit per puzzle that may be queued or solving
+     */
+    private final Semaphore queue;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder puzzles = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * puzzles won by each configuration when the engine is a portfolio
+     */
+    private final Map<String, LongAdder> winners = new ConcurrentHashMap<>();
+
+    SolveServer(InetSocketAddress address, Solver solver, int capacity, Duration timeout) throws IOException {
+        this.solver = solver;
+        this.timeout = timeout;
+        this.capacity = capacity;
+        this.queue = new Semaphore(capacity);
+        this.handlers = handlerExecutor();
+        this.solvers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new ThreadFactoryBuilder().setNameFormat("sudoku-serve-%d").setDaemon(true).build());
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(handlers);
+        server.createContext("/solve", this::solve);
+        server.createContext("/stats", this::stats);
+    }
+
+    @SuppressWarnings("PMD.DoNotCallSystemExit")
+    public static void main(final String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        int capacity = DEFAULT_QUEUE;
+        Duration timeout = DEFAULT_TIMEOUT;
+        Solver solver = Engine.BREADTH_FIRST;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("--port".equals(args[i])) {
+                    port = Integer.parseInt(args[++i]);
+                } else if ("--engine".equals(args[i])) {
+                    solver = Engine.valueOf(args[++i]);
+                } else if ("--queue".equals(args[i])) {
+                    capacity = Integer.parseInt(args[++i]);
+                } else if ("--timeout".equals(args[i])) {
+                    timeout = Duration.ofSeconds(Long.parseLong(args[++i]));
+                } else {
+                    throw new IllegalArgumentException(USAGE);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exc) {
+            log.error(USAGE);
+            System.exit(1);
+        }
+
+        SolveServer server = new SolveServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port), solver, capacity, timeout);
+        server.start();
+        log.info("Solving on http://localhost:{}/solve with {}, queue {}", server.getPort(), solver, capacity);
+    }
+
+    /**
+     * a thread per exchange, virtual when the JDK has them, looked up reflectively as the build targets an older JDK
+     */
+    static ExecutorService handlerExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException exc) {
+            return Executors.newCachedThreadPool(
+                    new ThreadFactoryBuilder().setNameFormat("sudoku-http-%d").setDaemon(true).build());
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+        solvers.shutdownNow();
+    }
+
+    private void solve(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try {
+            handleSolve(exchange, start);
+        } catch (RuntimeException exc) {
+            log.error("Solve request failed", exc);
+            throw exc;
+        } finally {
+            exchange.close();
+            record(System.nanoTime() - start);
+        }
+    }
+
+    private void handleSolve(HttpExchange exchange, long start) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            send(exchange, 405, "Use POST with one puzzle per line\n", start);
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(exchange.getRequestBody(), StandardCharsets.US_ASCII));
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!line.trim().isEmpty()) {
+                lines.add(line.trim());
+            }
+        }
+        if (lines.isEmpty()) {
+            send(exchange, 400, "No puzzles\n", start);
+            return;
+        }
+        if (lines.size() > capacity) {
+            send(exchange, 413, "At most " + capacity + " puzzles per request\n", start);
+            return;
+        }
+        if (!queue.tryAcquire(lines.size())) {
+            rejected.increment();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            send(exchange, 503, "Busy, " + (capacity - queue.availablePermits()) + " puzzles queued\n", start);
+            return;
+        }
+
+        List<CompletableFuture<BatchSolve.Result>> results = new ArrayList<>(lines.size());
+        for (String input : lines) {
+            results.add(submit(input));
+        }
+        StringBuilder body = new StringBuilder(lines.size() * 96);
+        try {
+            for (CompletableFuture<BatchSolve.Result> result : results) {
+                BatchSolve.Result solved = result.join();
+                body.append(solved.getStatus().name()).append('\t').append(solved.getGrid()).append('\n');
+            }
+        } catch (CompletionException exc) {
+            // the other puzzles of the request still give their permits back as they finish
+            log.error("Solver failed", exc.getCause());
+            send(exchange, 500, "Solver failed\n", start);
+            return;
+        }
+        puzzles.add(lines.size());
+        long nanos = send(exchange, 200, body.toString(), start);
+        log.info("Solved {} puzzles in {} ms", lines.size(), nanos / 1_000_000);
+    }
+
+    /**
+     * solve one line, holding its queue permit until the answer or the timeout
+     */
+    private CompletableFuture<BatchSolve.Result> submit(String line) {
+        Puzzle puzzle;
+        try {
+            puzzle = Puzzle.parse(line);
+        } catch (IllegalArgumentException exc) {
+            queue.release();
+            return CompletableFuture.completedFuture(new BatchSolve.Result(BatchSolve.Status.INVALID, line));
+        }
+        if (!puzzle.isValid()) {
+            queue.release();
+            return CompletableFuture.completedFuture(new BatchSolve.Result(BatchSolve.Status.INVALID, line));
+        }
+        CompletableFuture<SolveResult> solving = Sudoku.solveWithStatsAsync(puzzle, solver, timeout, solvers);
+        return solving.handle((result, exc) -> {
+            // freed before the answer is written, so a client that got it can be admitted again straight away
+            queue.release();
+            if (exc == null) {
+                if (result.getStats().winner != null) {
+                    winners.computeIfAbsent(result.getStats().winner, name -> new LongAdder()).increment();
+                }
+                return result.getSolution() == null
+                        ? new BatchSolve.Result(BatchSolve.Status.UNSOLVABLE, line)
+                        : new BatchSolve.Result(BatchSolve.Status.SOLVED, result.getSolution().toLine());
+            }
+            Throwable cause = exc instanceof CompletionException ? exc.getCause() : exc;
+            if (cause instanceof TimeoutException) {
+                return new BatchSolve.Result(BatchSolve.Status.TIMEOUT, line);
+            }
+            throw new IllegalStateException("Solver failed", cause);
+        });
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try {
+            long count = requests.sum();
+            StringBuilder body = new StringBuilder(256)
+                    .append("requests ").append(count).append('\n')
+                    .append("puzzles ").append(puzzles.sum()).append('\n')
+                    .append("rejected ").append(rejected.sum()).append('\n')
+                    .append("queued ").append(capacity - queue.availablePermits()).append('/').append(capacity)
+                    .append('\n')
+                    .append("mean_ms ").append(count == 0 ? 0 : totalNanos.sum() / count / 1_000_000.0).append('\n')
+                    .append("max_ms ").append(maxNanos.get() / 1_000_000.0).append('\n');
+            for (Map.Entry<String, LongAdder> won : new TreeMap<>(winners).entrySet()) {
+                body.append("won ").append(won.getKey().replace(' ', '_')).append(' ').append(won.getValue())
+                        .append('\n');
+            }
+            send(exchange, 200, body.toString(), start);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void record(long nanos) {
+        requests.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * write the response with its latency so far as a Server-Timing header, returning that latency
+     */
+    private long send(HttpExchange exchange, int status, String body, long start) throws IOException {
+        long nanos = System.nanoTime() - start;
+
+        byte[] bytes = body.getBytes(StandardCharsets.US_ASCII);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=us-ascii");
+        exchange.getResponseHeaders().set("Server-Timing", String.format("solve;dur=%.3f", nanos / 1_000_000.0));
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        return nanos;
+    }
+}
@@ -0,0 +1,159 @@
+package com.baber;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * what one solve did, each engine fills in the counters that apply to it and leaves the rest at zero
+ *
+ * the counters are plain fields updated by the thread running the search, a parallel search gathers them per
+ * branch and adds them up when the branch is done
+ */
+@Getter
+@ToString
+public class SolveStats {
+    /**
+     * search nodes expanded, a puzzle propagated by the searches or a column chosen by dancing links
+     */
+    long nodes;
+
+    /**
+     * branches created by splitting on the candidates of a cell
+     */
+    long forks;
+
+    /**
+     * nodes abandoned because a cell had no candidates left or a value had no place in a unit
+     */
+    long deadEnds;
+
+    /**
+     * values placed by propagation because a cell had a single candidate
+     */
+    long nakedSingles;
+
+    /**
+     * values placed by propagation because a unit had a single place for the value
+     */
+    long hiddenSingles;
+
+    /**
+     * the widest level of a breadth first search, the deepest branch of the others
+     */
+    long maxFrontier;
+
+    /**
+     * times a depth first search abandoned its tree and started over from the root
+     */
+    long restarts;
+
+    /**
+     * branches a backjumping search left untried because the dead end below did not depend on their decision
+     */
+    long backjumps;
+
+    /**
+     * dead ends a backjumping search stored as nogoods, and branches it skipped because they completed one
+     */
+    long nogoods;
+    long nogoodHits;
+
+    /**
+     * what the SAT engine did besides its decisions, counted as nodes, and its conflicts, counted as dead ends:
+     * literals implied by unit propagation, clauses learned from conflicts and learned clauses deleted again
+     */
+    long propagations;
+    long learnedClauses;
+    long deletedClauses;
+
+    /**
+     * branches each elimination technique, by ordinal, saved the search, those of a fork it would have made where the
+     * singles stalled at a node the techniques then solved or proved a dead end, counted like forks and credited to
+     * the technique that fired last
+     */
+    final long[] forksSaved = new long[Technique.values().length];
+
+    /**
+     * candidates ruled out by each elimination technique, by ordinal
+     */
+    final long[] eliminations = new long[Technique.values().length];
+
+    long wallNanos;
+
+    /**
+     * the name of the configuration that answered first when a portfolio raced several, null otherwise
+     */
+    String winner;
+
+    public long getForksSaved(Technique technique) {
+        return forksSaved[technique.ordinal()];
+    }
+
+    public long getEliminations(Technique technique) {
+        return eliminations[technique.ordinal()];
+    }
+
+    public long getWallMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(wallNanos);
+    }
+
+    void frontier(long size) {
+        if (size > maxFrontier) {
+            maxFrontier = size;
+        }
+    }
+
+    /**
+     * fold in the counters of part of the same solve
+     */
+    synchronized void add(SolveStats other) {
+        nodes += other.nodes;
+        forks += other.forks;
+        deadEnds += other.deadEnds;
+        nakedSingles += other.nakedSingles;
+        hiddenSingles += other.hiddenSingles;
+        restarts += other.restarts;
+        backjumps += other.backjumps;
+        nogoods += other.nogoods;
+        nogoodHits += other.nogoodHits;
+        propagations += other.propagations;
+        learnedClauses += other.learnedClauses;
+        deletedClauses += other.deletedClauses;
+        for (int i = 0; i < forksSaved.length; i++) {
+            forksSaved[i] += other.forksSaved[i];
+            eliminations[i] += other.eliminations[i];
+        }
+        frontier(other.maxFrontier);
+    }
+
+    /**
+     * a one line summary for logs and the status bar
+     */
+    public String summary() {
+        return nodes + " nodes, " + forks + " forks, " + deadEnds + " dead ends, " + nakedSingles + " naked and "
+                + hiddenSingles + " hidden singles, frontier " + maxFrontier
+                + (restarts > 0 ? ", " + restarts + " restarts" : "")
+                + (backjumps > 0 ? ", " + backjumps + " backjumps" : "")
+                + (nogoods > 0 ? ", " + nogoods + " nogoods, " + nogoodHits + " nogood hits" : "")
+                + (learnedClauses > 0 ? ", " + learnedClauses + " clauses learned, " + deletedClauses + " deleted" : "")
+                + techniqueSummary() + (winner != null ? ", won by " + winner : "") + ", " + getWallMillis()
+                + " ms";
+    }
+
+    /**
+     * the fork branches saved and candidates eliminated by each technique that did anything
+     */
+    public String techniqueSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (Technique technique : Technique.values()) {
+            int i = technique.ordinal();
+            if (eliminations[i] > 0) {
+                summary.append(", ").append(technique).append(' ').append(forksSaved[i]).append(" branches saved ")
+                        .append(eliminations[i]).append(" eliminated");
+            }
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.baber;
+
+/**
+ * listener for the individual steps of a solve, attached to the puzzle and its forks for the length of one solve
+ *
+ * nothing is attached unless a trace is registered with Sudoku.registerTrace, so the searches pay a null check and
+ * nothing else, a listener gets the raw cell and value numbers and does any formatting itself, away from the search
+ */
+public interface SolveTrace {
+    enum Step {
+        NAKED_SINGLE, HIDDEN_SINGLE, BRANCH
+    }
+
+    /**
+     * a value was placed in the cell, row * size + col, by propagation or as the branch a search is trying
+     */
+    default void placed(int cell, int value, Step step) {
+    }
+
+    /**
+     * the search split on the cell, -1 when dancing links splits on a unit and value
+     */
+    default void forked(int cell, int branches, int depth) {
+    }
+
+    /**
+     * a branch turned out to have no solution
+     */
+    default void deadEnd(int depth) {
+    }
+
+    /**
+     * the solve of the root puzzle is over
+     */
+    default void finished(Puzzle root, boolean solved) {
+    }
+}
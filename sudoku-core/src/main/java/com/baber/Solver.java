@@ -0,0 +1,100 @@
+package com.baber;
+
+import java.util.Arrays;
+
+/**
+ * a search engine that takes a puzzle and returns the solved puzzle, or null when it has no solution
+ */
+public interface Solver {
+    Puzzle solve(Puzzle puzzle);
+
+    /**
+     * how the engine shows up in logs and flight recorder events, an enum engine is known by its constant
+     */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * the same engine splitting the puzzle with the given strategy, engines that choose their own branches, like
+     * dancing links, ignore it
+     */
+    default Solver withBranching(BranchStrategy branching) {
+        Solver solver = this;
+        return new Solver() {
+            @Override
+            public Puzzle solve(Puzzle puzzle) {
+                Puzzle root = new Puzzle(puzzle);
+                root.branching = branching;
+                return solver.solve(root);
+            }
+
+            @Override
+            public String name() {
+                return solver.name() + " " + branching;
+            }
+        };
+    }
+
+    /**
+     * the same solver with the elimination techniques run, in the order given, wherever the singles stall, engines
+     * that do not propagate, like dancing links, ignore them
+     */
+    default Solver withTechniques(Technique... techniques) {
+        Solver solver = this;
+        Technique[] order = techniques.clone();
+        return new Solver() {
+            @Override
+            public Puzzle solve(Puzzle puzzle) {
+                Puzzle root = new Puzzle(puzzle);
+                root.techniques = order;
+                return solver.solve(root);
+            }
+
+            @Override
+            public String name() {
+                return solver.name() + " " + Arrays.toString(order);
+            }
+        };
+    }
+
+    /**
+     * solve a copy of the puzzle while counting what the search does, recorded as a flight recorder event too
+     */
+    default SolveResult solveWithStats(Puzzle puzzle) {
+        SolveStats stats = new SolveStats();
+        Puzzle root = new Puzzle(puzzle);
+        root.stats = stats;
+        root.trace = Sudoku.newTrace();
+
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Puzzle solution = solve(root);
+        stats.wallNanos = System.nanoTime() - start;
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = name();
+            event.clues = puzzle.getCellCount() - puzzle.getUnsetCount();
+            event.solved = solution != null;
+            event.nodes = stats.nodes;
+            event.forks = stats.forks;
+            event.deadEnds = stats.deadEnds;
+            event.puzzle = puzzle.toLine();
+            event.winner = stats.winner;
+            event.commit();
+        }
+
+        if (root.trace != null) {
+            root.trace.finished(puzzle, solution != null);
+        }
+        if (solution != null) {
+            solution.stats = null;
+            solution.trace = null;
+            solution.cancelled = null;
+            solution.branching = null;
+            solution.techniques = null;
+        }
+        return new SolveResult(solution, stats);
+    }
+}
@@ -0,0 +1,159 @@
+package com.baber;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Slf4j
+public class Sudoku {
+    static Puzzle puzzle = new Puzzle(6,3,0,1,0,0,0,9,0,0,0,8,9,5,4,1,0,0,0,0,0,0,0,0,2,5,7,1,0,0,0,9,8,0,0,6,7,0,0,2,4,6,0,0,9,9,0,6,0,0,0,5,2,4,5,4,0,8,6,0,3,0,0,0,0,2,4,0,9,0,8,0,0,6,7,0,0,0,0,0,2);
+
+    /**
+     * makes the listener for each measured solve, null while tracing is off
+     */
+    private static volatile Supplier<? extends SolveTrace> traceFactory;
+
+    /**
+     * runs the asynchronous solves, daemon threads so an abandoned search cannot keep the application alive
+     */
+    private static final ExecutorService SOLVE_EXECUTOR = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("sudoku-solve-%d").setDaemon(true).build());
+
+    public static Puzzle solve(Puzzle root)
+    {
+        return Engine.BREADTH_FIRST.solve(root);
+    }
+
+    /**
+     * solve in the background, the future completes with null when there is no solution and exceptionally with a
+     * TimeoutException once the timeout passes, cancelling it or letting it time out stops the search
+     */
+    public static CompletableFuture<Puzzle> solveAsync(Puzzle root, Duration timeout)
+    {
+        CompletableFuture<SolveResult> result = solveWithStatsAsync(root, Engine.BREADTH_FIRST, timeout);
+        CompletableFuture<Puzzle> solution = result.thenApply(SolveResult::getSolution);
+        solution.whenComplete((puzzle, exc) -> result.cancel(true));
+        return solution;
+    }
+
+    public static CompletableFuture<SolveResult> solveWithStatsAsync(Puzzle root, Solver solver, Duration timeout)
+    {
+        return solveWithStatsAsync(root, solver, timeout, SOLVE_EXECUTOR);
+    }
+
+    /**
+     * solve a copy of the root with stats on the executor, a null timeout waits for as long as the search takes
+     *
+     * the searches poll the future between nodes, so once it is done by cancellation or timeout they unwind and
+     * release the thread instead of running on to an answer nobody will read
+     */
+    public static CompletableFuture<SolveResult> solveWithStatsAsync(Puzzle root, Solver solver, Duration timeout,
+                                                                     Executor executor)
+    {
+        CompletableFuture<SolveResult> future = new CompletableFuture<>();
+        Puzzle copy = new Puzzle(root);
+        copy.cancelled = future::isDone;
+        if (timeout != null) {
+            future.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        executor.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(solver.solveWithStats(copy));
+            } catch (RuntimeException exc) {
+                future.completeExceptionally(exc);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * same answer as solve but searches depth first, undoing assignments instead of copying the puzzle per branch
+     */
+    public static Puzzle solveDepthFirst(Puzzle root)
+    {
+        return new DepthFirstSearch(root).solve();
+    }
+
+    /**
+     * searches the fork branches in parallel on a pool of the given size, returning the first solution found
+     */
+    public static Puzzle solveParallel(Puzzle root, int parallelism)
+    {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return solveParallel(root, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public static Puzzle solveParallel(Puzzle root, ForkJoinPool pool)
+    {
+        return new ParallelSearch(root).solve(pool);
+    }
+
+    /**
+     * the number of solutions up to the cap, a cap of 2 is enough to tell whether the solution is unique
+     */
+    public static int countSolutions(Puzzle root, int cap)
+    {
+        if (!root.isValid()) {
+            return 0;
+        }
+        return new DepthFirstSearch(root).count(cap);
+    }
+
+    public static boolean isUnique(Puzzle root)
+    {
+        return countSolutions(root, 2) == 1;
+    }
+
+    /**
+     * trace every solve run through Solver.solveWithStats with a fresh listener from the factory, null turns it off
+     */
+    public static void registerTrace(Supplier<? extends SolveTrace> factory)
+    {
+        traceFactory = factory;
+    }
+
+    static SolveTrace newTrace()
+    {
+        Supplier<? extends SolveTrace> factory = traceFactory;
+        return factory == null ? null : factory.get();
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && "batch".equals(args[0])) {
+            BatchSolve.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && "generate".equals(args[0])) {
+            Generator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && "serve".equals(args[0])) {
+            SolveServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && "pack".equals(args[0])) {
+            ArchiveWriter.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        SolveResult result = Engine.BREADTH_FIRST.solveWithStats(puzzle);
+        log.info("Solution in {}\n{}", result.getStats().summary(), result.getSolution());
+    }
+}
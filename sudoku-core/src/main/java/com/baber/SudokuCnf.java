@@ -0,0 +1,95 @@
+package com.baber;
+
+/**
+ * solves a puzzle by handing it to the clause learning SAT solver, one variable per cell and value, 729 for the
+ * classic grid, true when the cell holds the value
+ *
+ * the clauses say that each cell holds at least one value and no two, and that each value appears in each row,
+ * column and box at least once and no more than once, the given values go in as unit clauses
+ */
+class SudokuCnf implements Solver {
+    @Override
+    public Puzzle solve(Puzzle puzzle) {
+        if (!puzzle.isValid()) {
+            return null;
+        }
+        SatSolver sat = encode(puzzle);
+        boolean satisfied = sat.solve(puzzle::isCancelled);
+
+        SolveStats stats = puzzle.stats;
+        if (stats != null) {
+            stats.nodes += sat.decisions;
+            stats.forks += 2 * sat.decisions;
+            stats.deadEnds += sat.conflicts;
+            stats.restarts += sat.restarts;
+            stats.propagations += sat.propagations;
+            stats.learnedClauses += sat.learnedClauses;
+            stats.deletedClauses += sat.deletedClauses;
+            stats.frontier(sat.maxLevel);
+        }
+        if (!satisfied) {
+            return null;
+        }
+
+        int size = puzzle.getSize();
+        Puzzle solution = new Puzzle(puzzle);
+        for (int cell = 0; cell < solution.getCellCount(); cell++) {
+            for (int value = 1; value <= size; value++) {
+                if (sat.isTrue(variable(size, cell, value))) {
+                    solution.set(cell, value);
+                }
+            }
+        }
+        return solution;
+    }
+
+    static int variable(int size, int cell, int value) {
+        return cell * size + value - 1;
+    }
+
+    /**
+     * the clauses of the puzzle loaded into a new solver
+     */
+    static SatSolver encode(Puzzle puzzle) {
+        int size = puzzle.getSize();
+        int cells = puzzle.getCellCount();
+        SatSolver sat = new SatSolver(cells * size);
+        int[] group = new int[size];
+
+        for (int cell = 0; cell < cells; cell++) {
+            for (int value = 1; value <= size; value++) {
+                group[value - 1] = variable(size, cell, value);
+            }
+            exactlyOne(sat, group);
+        }
+        for (int unit = 0; unit < 3 * size; unit++) {
+            for (int value = 1; value <= size; value++) {
+                for (int i = 0; i < size; i++) {
+                    group[i] = variable(size, puzzle.unitCell(unit, i), value);
+                }
+                exactlyOne(sat, group);
+            }
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            int value = puzzle.get(cell);
+            if (value != 0) {
+                sat.addClause(SatSolver.literal(variable(size, cell, value), true));
+            }
+        }
+        return sat;
+    }
+
+    /**
+     * one clause for at least one of the variables and a binary clause for each pair that can not both hold
+     */
+    private static void exactlyOne(SatSolver sat, int[] variables) {
+        int[] atLeastOne = new int[variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            atLeastOne[i] = SatSolver.literal(variables[i], true);
+            for (int j = i + 1; j < variables.length; j++) {
+                sat.addClause(SatSolver.literal(variables[i], false), SatSolver.literal(variables[j], false));
+            }
+        }
+        sat.addClause(atLeastOne);
+    }
+}
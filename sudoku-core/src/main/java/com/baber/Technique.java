@@ -0,0 +1,353 @@
+package com.baber;
+
+/**
+ * elimination rules that go past the naked and hidden singles of the propagator, each one rules candidates out of
+ * cells without placing anything, so the singles can take over again
+ *
+ * attached to a solve with Solver.withTechniques, Puzzle.propagate then runs them in order whenever the singles
+ * stall, going back to the singles after every technique that made progress, until nothing applies
+ */
+public enum Technique {
+    /**
+     * a value confined to one line within a box leaves the rest of the line, and a value confined to one box within
+     * a line leaves the rest of the box
+     */
+    LOCKED_CANDIDATES {
+        @Override
+        int eliminate(Puzzle puzzle) {
+            int size = puzzle.size;
+            int eliminated = 0;
+            for (int box = 0; box < size; box++) {
+                int boxUnit = 2 * size + box;
+                for (int bit = 1; bit <= puzzle.allValues; bit <<= 1) {
+                    int rows = 0;
+                    int cols = 0;
+                    for (int i = 0; i < size; i++) {
+                        int cell = puzzle.unitCell(boxUnit, i);
+                        if (isCandidate(puzzle, cell, bit)) {
+                            rows |= 1 << (cell / size);
+                            cols |= 1 << (cell % size);
+                        }
+                    }
+                    if (Integer.bitCount(rows) == 1) {
+                        eliminated += eliminateOutside(puzzle, Integer.numberOfTrailingZeros(rows), boxUnit, bit);
+                    }
+                    if (Integer.bitCount(cols) == 1) {
+                        eliminated += eliminateOutside(puzzle, size + Integer.numberOfTrailingZeros(cols), boxUnit, bit);
+                    }
+                }
+            }
+            for (int line = 0; line < 2 * size; line++) {
+                for (int bit = 1; bit <= puzzle.allValues; bit <<= 1) {
+                    int boxes = 0;
+                    for (int i = 0; i < size; i++) {
+                        int cell = puzzle.unitCell(line, i);
+                        if (isCandidate(puzzle, cell, bit)) {
+                            boxes |= 1 << puzzle.box(cell / size, cell % size);
+                        }
+                    }
+                    if (Integer.bitCount(boxes) == 1) {
+                        eliminated += eliminateOutside(puzzle, 2 * size + Integer.numberOfTrailingZeros(boxes), line, bit);
+                    }
+                }
+            }
+            return eliminated;
+        }
+    },
+
+    /**
+     * two cells of a unit with the same two candidates take those values from the rest of the unit
+     */
+    NAKED_PAIRS {
+        @Override
+        int eliminate(Puzzle puzzle) {
+            return nakedSubsets(puzzle, 2);
+        }
+    },
+
+    /**
+     * two values of a unit with the same two places leave no room there for anything else
+     */
+    HIDDEN_PAIRS {
+        @Override
+        int eliminate(Puzzle puzzle) {
+            return hiddenSubsets(puzzle, 2);
+        }
+    },
+
+    NAKED_TRIPLES {
+        @Override
+        int eliminate(Puzzle puzzle) {
+            return nakedSubsets(puzzle, 3);
+        }
+    },
+
+    HIDDEN_TRIPLES {
+        @Override
+        int eliminate(Puzzle puzzle) {
+            return hiddenSubsets(puzzle, 3);
+        }
+    },
+
+    /**
+     * a value with two places in each of two rows, in the same two columns, is taken from the rest of those
+     * columns, and the same with rows and columns swapped
+     */
+    X_WING {
+        @Override
+        int eliminate(Puzzle puzzle) {
+            return fish(puzzle, 2);
+        }
+    },
+
+    /**
+     * the three line version of the x-wing
+     */
+    SWORDFISH {
+        @Override
+        int eliminate(Puzzle puzzle) {
+            return fish(puzzle, 3);
+        }
+    };
+
+    /**
+     * rule out what the technique can, returning the number of cell and value pairs it eliminated
+     */
+    abstract int eliminate(Puzzle puzzle);
+
+    /**
+     * run the techniques on a puzzle whose singles are propagated, false when the puzzle turned out to be a dead end
+     *
+     * where the singles first stall the search would split the puzzle, when the techniques then settle it, solved
+     * or a dead end, without it having to split after all, the branches of that fork are credited as saved to the
+     * technique that fired last
+     */
+    static boolean apply(Puzzle puzzle, Technique[] techniques) {
+        SolveStats stats = puzzle.stats;
+        int stalled = 0;
+        Technique last = null;
+        search:
+        while (!puzzle.isSolved()) {
+            if (stats != null && last == null) {
+                stalled = branches(puzzle);
+            }
+            for (Technique technique : techniques) {
+                int eliminated = technique.eliminate(puzzle);
+                if (eliminated > 0) {
+                    if (stats != null) {
+                        stats.eliminations[technique.ordinal()] += eliminated;
+                    }
+                    last = technique;
+                    if (!puzzle.propagator.run()) {
+                        saved(stats, last, stalled);
+                        return false;
+                    }
+                    continue search;
+                }
+            }
+            return true;
+        }
+        saved(stats, last, stalled);
+        return true;
+    }
+
+    /**
+     * the branches the search would fork the puzzle into now
+     */
+    private static int branches(Puzzle puzzle) {
+        int cell = puzzle.getBranching().selectCell(puzzle);
+        return cell < 0 ? 0 : Integer.bitCount(puzzle.candidateMask(cell / puzzle.size, cell % puzzle.size));
+    }
+
+    private static void saved(SolveStats stats, Technique last, int branches) {
+        if (stats != null && last != null) {
+            stats.forksSaved[last.ordinal()] += branches;
+        }
+    }
+
+    private static boolean isCandidate(Puzzle puzzle, int cell, int bit) {
+        int size = puzzle.size;
+        return puzzle.get(cell) == 0 && (puzzle.candidateMask(cell / size, cell % size) & bit) != 0;
+    }
+
+    private static boolean inUnit(Puzzle puzzle, int cell, int unit) {
+        int size = puzzle.size;
+        int index = unit % size;
+        switch (unit / size) {
+            case 0:
+                return cell / size == index;
+            case 1:
+                return cell % size == index;
+            default:
+                return puzzle.box(cell / size, cell % size) == index;
+        }
+    }
+
+    /**
+     * take the values from the cells of the unit that are not also in the other unit
+     */
+    private static int eliminateOutside(Puzzle puzzle, int unit, int keep, int bits) {
+        int eliminated = 0;
+        for (int i = 0; i < puzzle.size; i++) {
+            int cell = puzzle.unitCell(unit, i);
+            if (!inUnit(puzzle, cell, keep) && puzzle.eliminate(cell, bits)) {
+                eliminated++;
+            }
+        }
+        return eliminated;
+    }
+
+    /**
+     * the first k-subset of the masks, as bits over their indices, whose union has exactly k bits, 0 when none
+     * has, trying only subsets after the previous one so a caller can walk all of them
+     */
+    private static int subset(int[] masks, int count, int k, int previous) {
+        // highest index outermost, so the subsets come in increasing order of their bits
+        for (int c = k - 1; c < count; c++) {
+            for (int b = k - 2; b < c; b++) {
+                if (k == 2) {
+                    int chosen = (1 << b) | (1 << c);
+                    if (chosen > previous && Integer.bitCount(masks[b] | masks[c]) == 2) {
+                        return chosen;
+                    }
+                    continue;
+                }
+                for (int a = 0; a < b; a++) {
+                    int chosen = (1 << a) | (1 << b) | (1 << c);
+                    if (chosen > previous && Integer.bitCount(masks[a] | masks[b] | masks[c]) == 3) {
+                        return chosen;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static int union(int[] masks, int chosen) {
+        int union = 0;
+        for (int bits = chosen; bits != 0; bits &= bits - 1) {
+            union |= masks[Integer.numberOfTrailingZeros(bits)];
+        }
+        return union;
+    }
+
+    private static int nakedSubsets(Puzzle puzzle, int k) {
+        int size = puzzle.size;
+        int[] cells = new int[size];
+        int[] masks = new int[size];
+        int eliminated = 0;
+        for (int unit = 0; unit < 3 * size; unit++) {
+            int count = 0;
+            int open = 0;
+            for (int i = 0; i < size; i++) {
+                int cell = puzzle.unitCell(unit, i);
+                if (puzzle.get(cell) == 0) {
+                    open++;
+                    int mask = puzzle.candidateMask(cell / size, cell % size);
+                    if (Integer.bitCount(mask) <= k) {
+                        cells[count] = cell;
+                        masks[count++] = mask;
+                    }
+                }
+            }
+            if (open <= k) {
+                continue;
+            }
+            for (int chosen = subset(masks, count, k, 0); chosen != 0; chosen = subset(masks, count, k, chosen)) {
+                int values = union(masks, chosen);
+                for (int i = 0; i < size; i++) {
+                    int cell = puzzle.unitCell(unit, i);
+                    if (!isChosen(cells, chosen, cell) && puzzle.eliminate(cell, values)) {
+                        eliminated++;
+                    }
+                }
+            }
+        }
+        return eliminated;
+    }
+
+    private static boolean isChosen(int[] cells, int chosen, int cell) {
+        for (int bits = chosen; bits != 0; bits &= bits - 1) {
+            if (cells[Integer.numberOfTrailingZeros(bits)] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int hiddenSubsets(Puzzle puzzle, int k) {
+        int size = puzzle.size;
+        int[] values = new int[size];
+        int[] places = new int[size];
+        int eliminated = 0;
+        for (int unit = 0; unit < 3 * size; unit++) {
+            int count = 0;
+            for (int bit = 1; bit <= puzzle.allValues; bit <<= 1) {
+                int positions = 0;
+                for (int i = 0; i < size; i++) {
+                    if (isCandidate(puzzle, puzzle.unitCell(unit, i), bit)) {
+                        positions |= 1 << i;
+                    }
+                }
+                if (positions != 0 && Integer.bitCount(positions) <= k) {
+                    values[count] = bit;
+                    places[count++] = positions;
+                }
+            }
+            for (int chosen = subset(places, count, k, 0); chosen != 0; chosen = subset(places, count, k, chosen)) {
+                int keep = union(values, chosen);
+                for (int positions = union(places, chosen); positions != 0; positions &= positions - 1) {
+                    int cell = puzzle.unitCell(unit, Integer.numberOfTrailingZeros(positions));
+                    if (puzzle.eliminate(cell, ~keep)) {
+                        eliminated++;
+                    }
+                }
+            }
+        }
+        return eliminated;
+    }
+
+    /**
+     * k base lines holding a value in the same k cover lines, the value leaves the rest of the cover lines, rows as
+     * the base lines first and then columns
+     */
+    private static int fish(Puzzle puzzle, int k) {
+        int size = puzzle.size;
+        int[] lines = new int[size];
+        int[] covers = new int[size];
+        int eliminated = 0;
+        for (int base = 0; base <= 1; base++) {
+            for (int bit = 1; bit <= puzzle.allValues; bit <<= 1) {
+                int count = 0;
+                for (int line = 0; line < size; line++) {
+                    int positions = 0;
+                    for (int i = 0; i < size; i++) {
+                        if (isCandidate(puzzle, puzzle.unitCell(base * size + line, i), bit)) {
+                            positions |= 1 << i;
+                        }
+                    }
+                    if (Integer.bitCount(positions) >= 2 && Integer.bitCount(positions) <= k) {
+                        lines[count] = line;
+                        covers[count++] = positions;
+                    }
+                }
+                for (int chosen = subset(covers, count, k, 0); chosen != 0; chosen = subset(covers, count, k, chosen)) {
+                    int baseLines = 0;
+                    for (int bits = chosen; bits != 0; bits &= bits - 1) {
+                        baseLines |= 1 << lines[Integer.numberOfTrailingZeros(bits)];
+                    }
+                    for (int cover = union(covers, chosen); cover != 0; cover &= cover - 1) {
+                        int coverUnit = (1 - base) * size + Integer.numberOfTrailingZeros(cover);
+                        for (int i = 0; i < size; i++) {
+                            // along a cover line the i-th cell sits on base line i
+                            if ((baseLines & (1 << i)) == 0 && puzzle.eliminate(puzzle.unitCell(coverUnit, i), bit)) {
+                                eliminated++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return eliminated;
+    }
+}
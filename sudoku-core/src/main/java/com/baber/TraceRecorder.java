@@ -0,0 +1,98 @@
+package com.baber;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * keeps the last steps of a solve in a fixed ring of primitive slots, so recording allocates nothing, and logs them
+ * when the solve fails
+ *
+ * a parallel search reports from several threads, so recording is synchronized, which only matters while tracing
+ */
+@Slf4j
+public class TraceRecorder implements SolveTrace {
+    private static final int FORK = -1;
+    private static final int DEAD_END = -2;
+
+    private final int[] kinds;
+    private final int[] cells;
+    private final int[] values;
+    private final int[] depths;
+
+    /**
+     * steps recorded so far, the ring holds the last capacity of them
+     */
+    private long steps;
+
+    public TraceRecorder(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A trace needs room for at least one step, not " + capacity);
+        }
+        kinds = new int[capacity];
+        cells = new int[capacity];
+        values = new int[capacity];
+        depths = new int[capacity];
+    }
+
+    @Override
+    public void placed(int cell, int value, Step step) {
+        record(step.ordinal(), cell, value, 0);
+    }
+
+    @Override
+    public void forked(int cell, int branches, int depth) {
+        record(FORK, cell, branches, depth);
+    }
+
+    @Override
+    public void deadEnd(int depth) {
+        record(DEAD_END, -1, 0, depth);
+    }
+
+    @Override
+    public void finished(Puzzle root, boolean solved) {
+        if (!solved && log.isWarnEnabled()) {
+            log.warn("No solution for {}, last {} of {} steps:\n{}", root.toLine(), Math.min(steps, kinds.length),
+                    steps, String.join("\n", dump(root.size)));
+        }
+    }
+
+    private synchronized void record(int kind, int cell, int value, int depth) {
+        int slot = (int) (steps++ % kinds.length);
+        kinds[slot] = kind;
+        cells[slot] = cell;
+        values[slot] = value;
+        depths[slot] = depth;
+    }
+
+    /**
+     * the steps still in the ring, oldest first, with cells given as row and column of a grid of the size
+     */
+    public synchronized List<String> dump(int size) {
+        int count = (int) Math.min(steps, kinds.length);
+        List<String> lines = new ArrayList<>(count);
+        for (long step = steps - count; step < steps; step++) {
+            int slot = (int) (step % kinds.length);
+            String cell = cells[slot] < 0 ? "a unit" : "row " + (cells[slot] / size + 1) + " x col " + (cells[slot] % size + 1);
+            switch (kinds[slot]) {
+                case FORK:
+                    lines.add(step + " fork " + cell + " into " + values[slot] + " at depth " + depths[slot]);
+                    break;
+                case DEAD_END:
+                    lines.add(step + " dead end at depth " + depths[slot]);
+                    break;
+                default:
+                    Step placed = Step.values()[kinds[slot]];
+                    lines.add(step + " " + placed.name().toLowerCase().replace('_', ' ') + " " + cell + " -- "
+                            + Puzzle.charOf(values[slot]));
+            }
+        }
+        return lines;
+    }
+
+    public synchronized long getSteps() {
+        return steps;
+    }
+}
@@ -0,0 +1,23 @@
+package com.baber;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArchiveWriterTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void unsupportedSizeLeavesNoFile() {
+        Path archive = dir.resolve("puzzles.sdka");
+
+        assertThrows(IllegalArgumentException.class, () -> new ArchiveWriter(archive, 10));
+        assertFalse(Files.exists(archive));
+    }
+}
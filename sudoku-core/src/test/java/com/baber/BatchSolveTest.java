@@ -0,0 +1,61 @@
+package com.baber;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchSolveTest {
+    private static final String INPUT = "800000000003600000070090200050007000000045700000100030001000068008500010090000400\n"
+            + "80000000000360000007009020005000700000004570000010003000100006800850001009000040\n"
+            + "8000000000036000000700902000500070000000457000001000300010000680085000100900004x0\r\n"
+            + "880000000003600000070090200050007000000045700000100030001000068008500010090000400\n";
+
+    @TempDir
+    Path dir;
+
+    private String piped(String input) throws Exception {
+        StringWriter out = new StringWriter();
+        new BatchSolve(Engine.DEPTH_FIRST, 2, 0).run(new BufferedReader(new StringReader(input)), out);
+        return out.toString();
+    }
+
+    private String mapped(String input) throws Exception {
+        Path file = dir.resolve("puzzles.txt");
+        Files.write(file, input.getBytes(StandardCharsets.US_ASCII));
+        StringWriter out = new StringWriter();
+        try (CorpusReader corpus = new CorpusReader(file)) {
+            new BatchSolve(Engine.DEPTH_FIRST, 2, 0).run(corpus, out);
+        }
+        return out.toString();
+    }
+
+    @Test
+    void mappedFileMatchesStandardInput() throws Exception {
+        String mapped = mapped(INPUT);
+
+        assertEquals(piped(INPUT), mapped);
+        assertEquals("INVALID\t80000000000360000007009020005000700000004570000010003000100006800850001009000040",
+                mapped.split("\n")[1]);
+    }
+
+    /**
+     * the format is told from the first line, which must not stop the run when it is blank or malformed
+     */
+    @Test
+    void malformedFirstLineIsReportedNotFatal() throws Exception {
+        String input = "\n" + INPUT.substring(INPUT.indexOf('\n') + 1);
+        String mapped = mapped(input);
+
+        assertEquals(piped(input), mapped);
+        assertEquals("INVALID\t80000000000360000007009020005000700000004570000010003000100006800850001009000040",
+                mapped.split("\n")[0]);
+    }
+}
@@ -0,0 +1,61 @@
+package com.baber;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CorpusReaderTest {
+    @TempDir
+    Path dir;
+
+    private static List<String> readAll(CorpusReader corpus, List<CorpusReader.Chunk> chunks) throws IOException {
+        List<String> records = new ArrayList<>();
+        for (CorpusReader.Chunk chunk : chunks) {
+            Puzzle puzzle;
+            while ((puzzle = chunk.read()) != null) {
+                assertEquals(Optional.empty(), puzzle.error);
+                records.add(puzzle.toLine());
+            }
+        }
+        return records;
+    }
+
+    /**
+     * a sav file of 16x16 grids, values of one and two digits, lines ending in CRLF or LF at random
+     */
+    @Test
+    void splitsSavRecordsOfVaryingLength() throws IOException {
+        Random random = new Random(7);
+        StringBuilder sav = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int record = 0; record < 40; record++) {
+            Puzzle puzzle = Puzzle.empty(16);
+            for (int cell = 0; cell < puzzle.getCellCount(); cell++) {
+                int value = random.nextInt(17);
+                puzzle.set(cell, value);
+                sav.append(value).append(random.nextBoolean() ? "\r\n" : "\n");
+            }
+            expected.add(puzzle.toLine());
+        }
+        Path file = dir.resolve("grids.sav");
+        Files.write(file, sav.toString().getBytes(StandardCharsets.US_ASCII));
+
+        try (CorpusReader corpus = new CorpusReader(file, 16)) {
+            assertEquals(CorpusReader.Format.SAVE, corpus.getFormat());
+            assertEquals(expected, readAll(corpus, corpus.chunks()));
+            for (int parts = 2; parts <= 13; parts++) {
+                assertEquals(expected, readAll(corpus, corpus.split(parts)), "split into " + parts);
+            }
+        }
+    }
+}
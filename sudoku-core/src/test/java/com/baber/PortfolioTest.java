@@ -0,0 +1,60 @@
+package com.baber;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PortfolioTest {
+    private static final String PUZZLE =
+            "800000000003600000070090200050007000000045700000100030001000068008500010090000400";
+    private static final String SOLUTION =
+            "812753649943682175675491283154237896369845721287169534521974368438526917796318452";
+
+    @Test
+    void solutionCanBeSearchedAgain() {
+        try (Portfolio portfolio = new Portfolio(2, Engine.DEPTH_FIRST, Engine.BREADTH_FIRST)) {
+            Puzzle puzzle = Puzzle.parse(PUZZLE);
+            Puzzle solution = portfolio.solve(puzzle);
+            assertNotNull(solution);
+            assertFalse(solution.isCancelled());
+            assertSame(puzzle.stats, solution.stats);
+            assertSame(puzzle.trace, solution.trace);
+
+            for (int cell = 0; cell < solution.getCellCount(); cell++) {
+                if (PUZZLE.charAt(cell) == '0') {
+                    solution.set(cell, 0);
+                }
+            }
+            assertEquals(1, Sudoku.countSolutions(solution, 2));
+            Puzzle again = Engine.DEPTH_FIRST.solve(solution);
+            assertNotNull(again);
+            assertEquals(SOLUTION, again.toLine());
+        }
+    }
+
+    @Test
+    void reportsTheWinner() {
+        try (Portfolio portfolio = new Portfolio(2, Engine.DEPTH_FIRST, Engine.BREADTH_FIRST)) {
+            Puzzle puzzle = Puzzle.parse(PUZZLE);
+            puzzle.stats = new SolveStats();
+            Puzzle solution = portfolio.solve(puzzle);
+            assertNotNull(solution);
+            assertSame(puzzle.stats, solution.stats);
+            assertNotNull(puzzle.stats.winner);
+            assertEquals(1L, portfolio.wins().values().stream().mapToLong(Long::longValue).sum());
+        }
+    }
+
+    @Test
+    void answersNothingWhenCancelled() {
+        try (Portfolio portfolio = new Portfolio(2, Engine.DEPTH_FIRST, Engine.BREADTH_FIRST)) {
+            Puzzle puzzle = Puzzle.parse(PUZZLE);
+            puzzle.cancelled = () -> true;
+            assertNull(portfolio.solve(puzzle));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.baber;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SolveCacheTest {
+    private static final String PUZZLE =
+            "800000000003600000070090200050007000000045700000100030001000068008500010090000400";
+    private static final String SOLUTION =
+            "812753649943682175675491283154237896369845721287169534521974368438526917796318452";
+
+    @Test
+    void waiterOutlivesACancelledLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Solver solver = puzzle -> {
+            if (loads.getAndIncrement() == 0) {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException exc) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }
+            return Engine.DEPTH_FIRST.solve(puzzle);
+        };
+        SolveCache cache = new SolveCache(solver, 16);
+
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Puzzle first = Puzzle.parse(PUZZLE);
+        first.cancelled = cancelled::get;
+        CompletableFuture<Puzzle> loader = CompletableFuture.supplyAsync(() -> cache.solve(first));
+        loading.await();
+        CompletableFuture<Puzzle> waiter = CompletableFuture.supplyAsync(() -> cache.solve(Puzzle.parse(PUZZLE)));
+        // give the second caller time to block on the load in progress
+        Thread.sleep(200);
+        cancelled.set(true);
+        release.countDown();
+
+        assertNull(loader.get());
+        Puzzle solved = waiter.get();
+        assertNotNull(solved);
+        assertEquals(SOLUTION, solved.toLine());
+    }
+}
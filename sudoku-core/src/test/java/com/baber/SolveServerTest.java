@@ -0,0 +1,136 @@
+package com.baber;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolveServerTest {
+    private static final String PUZZLE =
+            "800000000003600000070090200050007000000045700000100030001000068008500010090000400";
+    private static final String SOLUTION =
+            "812753649943682175675491283154237896369845721287169534521974368438526917796318452";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private SolveServer server;
+
+    @AfterEach
+    void stop() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private SolveServer start(Solver solver, int capacity) throws Exception {
+        server = new SolveServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), solver, capacity,
+                Duration.ofSeconds(30));
+        server.start();
+        return server;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path));
+    }
+
+    private HttpResponse<String> post(String body) throws Exception {
+        return client.send(request("/solve").POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String stats() throws Exception {
+        return client.send(request("/stats").GET().build(), HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Test
+    void solvesABatchInOrder() throws Exception {
+        start(Engine.DEPTH_FIRST, 16);
+
+        HttpResponse<String> response = post(PUZZLE + "\nnot a puzzle\n" + PUZZLE + "\n");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("SOLVED\t" + SOLUTION + "\nINVALID\tnot a puzzle\nSOLVED\t" + SOLUTION + "\n", response.body());
+        assertTrue(response.headers().firstValue("Server-Timing").orElse("").startsWith("solve;dur="));
+    }
+
+    @Test
+    void rejectsOtherMethods() throws Exception {
+        start(Engine.DEPTH_FIRST, 16);
+
+        HttpResponse<String> response = client.send(request("/solve").GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(405, response.statusCode());
+    }
+
+    @Test
+    void turnsAwayWorkPastTheQueue() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Solver held = puzzle -> {
+            try {
+                release.await();
+            } catch (InterruptedException exc) {
+                Thread.currentThread().interrupt();
+            }
+            return Engine.DEPTH_FIRST.solve(puzzle);
+        };
+        start(held, 2);
+
+        CompletableFuture<HttpResponse<String>> first = client.sendAsync(
+                request("/solve").POST(HttpRequest.BodyPublishers.ofString(PUZZLE + "\n" + PUZZLE + "\n")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        while (!stats().contains("queued 2/2")) {
+            Thread.sleep(10);
+        }
+
+        HttpResponse<String> busy = post(PUZZLE + "\n");
+        assertEquals(503, busy.statusCode());
+        assertEquals("1", busy.headers().firstValue("Retry-After").orElse(""));
+        assertEquals(413, post(PUZZLE + "\n" + PUZZLE + "\n" + PUZZLE + "\n").statusCode());
+
+        release.countDown();
+        assertEquals(200, first.get().statusCode());
+        assertEquals(200, post(PUZZLE + "\n").statusCode());
+    }
+
+    @Test
+    void answersA500WhenTheSolverFails() throws Exception {
+        start(puzzle -> {
+            throw new IllegalStateException("broken solver");
+        }, 16);
+
+        HttpResponse<String> response = post(PUZZLE + "\n");
+
+        assertEquals(500, response.statusCode());
+        assertEquals(200, post("not a puzzle\n").statusCode());
+    }
+
+    @Test
+    void reportsStats() throws Exception {
+        start(Engine.DEPTH_FIRST, 16);
+        post(PUZZLE + "\n" + PUZZLE + "\n");
+
+        // the request is counted once its exchange is closed, which can come after the client has the answer
+        String stats = stats();
+        while (!stats.contains("requests 1\n")) {
+            Thread.sleep(10);
+            stats = stats();
+        }
+
+        assertTrue(stats.contains("requests 1\n"), stats);
+        assertTrue(stats.contains("puzzles 2\n"), stats);
+        assertTrue(stats.contains("rejected 0\n"), stats);
+        assertTrue(stats.contains("queued 0/16\n"), stats);
+    }
+}
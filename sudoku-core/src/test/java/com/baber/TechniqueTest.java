@@ -0,0 +1,55 @@
+package com.baber;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TechniqueTest {
+    /**
+     * the singles stall on it, locked candidates finish it
+     */
+    private static final String SETTLED =
+            "000000012008030000000000040120500000000004700060000000507000300000620000000100000";
+
+    /**
+     * locked candidates rule out a couple of candidates, not enough to spare the split
+     */
+    private static final String UNSETTLED =
+            "000006000059000008200008000045000000003000000006003054000325006000000000000000000";
+
+    private static Puzzle withTechniques(String line) {
+        Puzzle puzzle = Puzzle.parse(line);
+        puzzle.stats = new SolveStats();
+        puzzle.techniques = Technique.values();
+        return puzzle;
+    }
+
+    @Test
+    void creditsTheForkOfASettledNode() {
+        Puzzle singles = Puzzle.parse(SETTLED);
+        assertTrue(singles.propagate());
+        assertFalse(singles.isSolved());
+        int cell = singles.bestCell();
+        int branches = Integer.bitCount(singles.candidateMask(cell / singles.size, cell % singles.size));
+
+        Puzzle puzzle = withTechniques(SETTLED);
+        assertTrue(puzzle.propagate());
+        assertTrue(puzzle.isSolved());
+        assertEquals(branches, puzzle.stats.getForksSaved(Technique.LOCKED_CANDIDATES));
+    }
+
+    @Test
+    void savesNothingWhenTheNodeStillSplits() {
+        Puzzle puzzle = withTechniques(UNSETTLED);
+        assertTrue(puzzle.propagate());
+        assertFalse(puzzle.isSolved());
+        long eliminated = 0;
+        for (Technique technique : Technique.values()) {
+            eliminated += puzzle.stats.getEliminations(technique);
+            assertEquals(0, puzzle.stats.getForksSaved(technique));
+        }
+        assertTrue(eliminated > 0);
+    }
+}
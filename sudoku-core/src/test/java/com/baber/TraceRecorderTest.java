@@ -0,0 +1,24 @@
+package com.baber;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TraceRecorderTest {
+    @Test
+    void rejectsAnEmptyRing() {
+        assertThrows(IllegalArgumentException.class, () -> new TraceRecorder(0));
+        assertThrows(IllegalArgumentException.class, () -> new TraceRecorder(-1));
+    }
+
+    @Test
+    void keepsTheLastSteps() {
+        TraceRecorder trace = new TraceRecorder(1);
+        trace.forked(0, 2, 0);
+        trace.deadEnd(1);
+
+        assertEquals(2, trace.getSteps());
+        assertEquals(1, trace.dump(9).size());
+    }
+}
@@ -0,0 +1,283 @@
+package com.baber;
+
+import com.baber.fx.BackgroundAgent;
+import com.baber.fx.Dialogs;
+import com.baber.fx.HandlesEvent;
+import com.baber.fx.SudokuComboBox;
+import javafx.application.Platform;
+import javafx.concurrent.WorkerStateEvent;
+import javafx.event.ActionEvent;
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Stage;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.baber.Puzzle.CELL_COUNT;
+
+@Slf4j
+public class Controller {
+    private static final String SAVE_EXT = "sav";
+
+    private static final String SAVE_FILE = "sudoku.sav";
+
+    /**
+     * how long the solve action searches before giving up on the puzzle
+     */
+    private static final Duration SOLVE_TIMEOUT = Duration.ofSeconds(60);
+
+    private static Stage primaryStage;
+
+    private final Dialogs dialogs = new Dialogs();
+
+    @FXML
+    private TextField messageLog;
+
+    @FXML
+    public GridPane gridPane;
+
+    private SudokuComboBox[][] values = new SudokuComboBox[CELL_COUNT][CELL_COUNT];
+
+    /**
+     * follows every edit of the grid so conflicts can be shown as they are made
+     */
+    private final Puzzle board = new Puzzle();
+
+    /**
+     * the engine used by the solve action
+     */
+    @Setter
+    private Solver solver = Engine.BREADTH_FIRST;
+
+    /**
+     * the singleton controller for reference in the Ui
+     */
+    @Getter
+    private static Controller SINGLETON;
+
+    public Controller ()
+    {
+        SINGLETON = this;
+    }
+
+    public void init (Stage primaryStage)
+    {
+        this.primaryStage = primaryStage;
+        for (int x = 0; x< CELL_COUNT; x++) {
+            for (int y = 0; y < CELL_COUNT; y++)
+            {
+                int xRule = x / 3;
+                int yRule = y / 3;
+                values[x][y] = new SudokuComboBox();
+                gridPane.add(values[x][y], y+yRule, x+xRule);
+                int row = x;
+                int col = y;
+                values[x][y].valueProperty().addListener((observable, oldValue, newValue) -> cellChanged(row, col));
+            }
+        }
+        clear(null);
+        updateMessageLog("");
+    }
+
+    @SuppressWarnings("PMD.DoNotCallSystemExit")
+    public void exit(final @NonNull Event evt) {
+        if (dialogs.prompt("Exit Program?")) {
+            Platform.exit();
+            System.exit(0);
+        } else {
+            evt.consume();
+        }
+    }
+
+    /**
+     * track the edit and mark every cell whose value now clashes with another in its row, column or box
+     */
+    private void cellChanged(int row, int col) {
+        board.set(row, col, values[row][col].getSelectedValue());
+        for (int x = 0; x < CELL_COUNT; x++) {
+            for (int y = 0; y < CELL_COUNT; y++) {
+                values[x][y].setConflict(board.isConflict(x, y));
+            }
+        }
+    }
+
+    @FXML
+    public void fileClose(final ActionEvent evt) {
+        exit(evt);
+    }
+
+    private void updateMessageLog(String msg)
+    {
+            messageLog.setText(msg);
+    }
+
+    @FXML
+    public void solve(final ActionEvent evt) {
+        Puzzle puzzle = new Puzzle(board);
+        if (!puzzle.isValid()) {
+            dialogs.error(puzzle.error.get());
+            return;
+        }
+
+        AtomicReference<SolveResult> result = new AtomicReference<>();
+        AtomicReference<String> failure = new AtomicReference<>();
+        BackgroundAgent<Boolean> solveIt = new BackgroundAgent<>();
+        Alert dialog = dialogs.working("Solving", solveIt::cancel);
+
+        EventHandler<WorkerStateEvent> solvedHandler = workerStateEvent -> {
+            dialog.close();
+            if (failure.get() != null) {
+                updateMessageLog(failure.get());
+                dialogs.error(failure.get());
+            } else if (result.get().getSolution() != null) {
+                updateMessageLog("Solution found in " + result.get().getStats().summary());
+                setValues(result.get().getSolution().toGrid());
+            } else {
+                updateMessageLog("No solution after " + result.get().getStats().summary());
+                dialogs.error("No solution found");
+            }
+        };
+        EventHandler<WorkerStateEvent> cancelledHandler = workerStateEvent -> {
+            dialog.close();
+            updateMessageLog("Solve cancelled");
+        };
+        HandlesEvent<Boolean> backgroundHandler = () -> {
+            CompletableFuture<SolveResult> future =
+                    Sudoku.solveWithStatsAsync(puzzle, solver, SOLVE_TIMEOUT);
+            try {
+                result.set(future.get());
+            } catch (InterruptedException exc) {
+                // the cancel button interrupts the wait, pass it on to the search
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException exc) {
+                if (exc.getCause() instanceof TimeoutException) {
+                    failure.set("No solution within " + SOLVE_TIMEOUT.getSeconds() + " seconds");
+                } else {
+                    log.error("Solve failed", exc.getCause());
+                    failure.set("Solve failed: " + exc.getCause().getMessage());
+                }
+            }
+            return true;
+        };
+        solveIt.andNotifyWhenCancelled(cancelledHandler)
+                .andNotifyWhenComplete(solvedHandler)
+                .runInBackground(backgroundHandler);
+    }
+
+    @FXML
+    public void checkUnique(final ActionEvent evt) {
+        Puzzle puzzle = new Puzzle(board);
+
+        AtomicInteger solutions = new AtomicInteger();
+
+        EventHandler<WorkerStateEvent> countedHandler = workerStateEvent -> {
+            if (solutions.get() == 0) {
+                dialogs.error("No solution found");
+            } else if (solutions.get() == 1) {
+                dialogs.info("Puzzle has a unique solution");
+            } else {
+                dialogs.info("Puzzle has more than one solution");
+            }
+        };
+        EventHandler<WorkerStateEvent> invalidHandler = workerStateEvent -> {
+            dialogs.error(puzzle.error.get());
+        };
+        HandlesEvent<Boolean> backgroundHandler = () -> {
+            if (!puzzle.isValid()) {
+                return false;
+            }
+
+            solutions.set(Sudoku.countSolutions(puzzle, 2));
+            return true;
+        };
+        BackgroundAgent<Boolean> countIt = new BackgroundAgent<Boolean>()
+                .andNotifyWhenFailed(invalidHandler)
+                .andNotifyWhenComplete(countedHandler);
+
+        Alert dialog = dialogs.working("Checking");
+        countIt.runInBackground(backgroundHandler);
+        dialog.close();
+    }
+
+    @FXML
+    public void clear(final ActionEvent evt) {
+        for (int x=0; x<CELL_COUNT; x++) {
+            for (int y = 0; y < CELL_COUNT; y++) {
+                values[x][y].setSelectedValue(0);
+            }
+        }
+    }
+
+    @FXML
+    public void save(final ActionEvent evt) {
+        File saveFile = dialogs.fileSave(primaryStage, ".", SAVE_FILE, SAVE_EXT);
+        if (saveFile != null) {
+            try {
+                ArchiveWriter.save(saveFile.toPath(), new Puzzle(getValues()));
+            } catch (IOException exc) {
+                log.error("Could not save puzzle to {}", saveFile, exc);
+                dialogs.error("Could not save puzzle to " + saveFile);
+            }
+        }
+    }
+
+    @FXML
+    public void load(final ActionEvent evt) {
+        File saveFile = dialogs.fileOpen(primaryStage, ".", SAVE_FILE, SAVE_EXT);
+        if (saveFile != null) {
+            try {
+                Puzzle puzzle = PuzzleArchive.load(saveFile.toPath());
+                if (puzzle.error.isPresent() || puzzle.getSize() != CELL_COUNT) {
+                    throw new IOException(puzzle.error.orElse("Unsupported grid size " + puzzle.getSize()));
+                }
+                setValues(puzzle.toGrid());
+            } catch (IOException exc) {
+                log.error("Could not load puzzle from {}", saveFile, exc);
+                dialogs.error("Could not load puzzle from " + saveFile);
+            }
+        }
+    }
+
+    @FXML
+    public void about(final ActionEvent evt) {
+        dialogs.info("Sudoku Solver V1.0.0");
+    }
+
+    public int[][] getValues()
+    {
+        int[][] selectedValues = new int[CELL_COUNT][CELL_COUNT];
+        for (int x=0; x<CELL_COUNT; x++)
+        {
+            for (int y=0; y<CELL_COUNT; y++)
+            {
+                selectedValues[x][y] = values[x][y].getSelectedValue();
+            }
+        }
+        return selectedValues;
+    }
+
+    public void setValues(int [][] newValues)
+    {
+        for (int x=0; x<CELL_COUNT; x++) {
+            for (int y = 0; y < CELL_COUNT; y++) {
+                values[x][y].setSelectedValue(newValues[x][y]);
+            }
+        }
+    }
+}
@@ -32,6 +32,16 @@ public class BackgroundAgent<T>
      */
     private EventHandler<WorkerStateEvent> failedNotification;
 
+    /**
+     * tell someone we've been cancelled, the failed listener hears about it when this is not set
+     */
+    private EventHandler<WorkerStateEvent> cancelledNotification;
+
+    /**
+     * the task last started, kept so it can be cancelled
+     */
+    private volatile Task<T> task;
+
     /**
      * don't look at my privates
      */
@@ -76,6 +86,15 @@ public class BackgroundAgent<T>
         return this;
     }
 
+    /**
+     * chained method for adding a cancelled notification listener
+     */
+    public BackgroundAgent<T> andNotifyWhenCancelled(final EventHandler<WorkerStateEvent> anEventHandler)
+    {
+        cancelledNotification = anEventHandler;
+        return this;
+    }
+
     /**
      * chained method for adding a running notification listener
      */
@@ -90,8 +109,19 @@ public class BackgroundAgent<T>
      */
     public void runInBackground(final HandlesEvent<T> process)
     {
-        final Task<T> task = runOnThread(process);
-        new Thread(task).start();
+        task = runOnThread(process);
+        final Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * cancel the task last started, interrupting its thread, the process should give up once it sees the interrupt
+     */
+    public boolean cancel()
+    {
+        final Task<T> running = task;
+        return running != null && running.cancel(true);
     }
 
     /**
@@ -123,7 +153,11 @@ public class BackgroundAgent<T>
         final EventHandler<WorkerStateEvent> failed =
                 failedEvent -> toggleControlAndNotify(failedEvent, failedNotification, false);
 
-        task.setOnCancelled(failed);
+        final EventHandler<WorkerStateEvent> cancelled =
+                cancelledEvent -> toggleControlAndNotify(cancelledEvent,
+                        cancelledNotification == null ? failedNotification : cancelledNotification, false);
+
+        task.setOnCancelled(cancelled);
         task.setOnFailed(failed);
         task.setOnRunning(running);
         task.setOnSucceeded(completed);
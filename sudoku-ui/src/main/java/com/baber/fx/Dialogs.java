@@ -223,6 +223,27 @@ public class Dialogs
         return WORKING_DIALOG;
     }
 
+    /**
+     * helper to display the working dialogue with a cancel button, the action runs when the user presses it
+     *
+     * closing the dialogue from code counts as cancelling too, so the action must be harmless once the work is done
+     */
+    public Alert working(final String message, final Runnable onCancel)
+    {
+        final Alert dialog = new Alert(AlertType.INFORMATION, "", ButtonType.CANCEL);
+        dialog.setTitle("Working");
+        dialog.setHeaderText(message);
+        dialog.resultProperty().addListener((observable, oldValue, newValue) ->
+        {
+            if (ButtonType.CANCEL.equals(newValue))
+            {
+                onCancel.run();
+            }
+        });
+        dialog.show();
+        return dialog;
+    }
+
     /**
      * helper to prompt the user for input
      */
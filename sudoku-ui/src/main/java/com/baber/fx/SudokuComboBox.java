@@ -3,6 +3,8 @@ package com.baber.fx;
 import javafx.scene.control.ComboBox;
 
 public class SudokuComboBox extends ComboBox<String> {
+    private static final String CONFLICT_STYLE = "conflict";
+
     public SudokuComboBox() {
         getItems().addAll(" ", "1", "2", "3", "4", "5", "6", "7", "8", "9");
     }
@@ -26,4 +28,13 @@ public class SudokuComboBox extends ComboBox<String> {
         }
         return Integer.parseInt(selection);
     }
+
+    public void setConflict(boolean conflict)
+    {
+        getStyleClass().remove(CONFLICT_STYLE);
+        if (conflict)
+        {
+            getStyleClass().add(CONFLICT_STYLE);
+        }
+    }
 }